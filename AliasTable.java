@@ -0,0 +1,70 @@
+/**
+ * Walker/Vose alias table: samples a discrete distribution over 0..n-1 in O(1)
+ * with a single uniform draw, whatever the number of outcomes.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("[ALIAS-ERROR] At least one weight is required.");
+        }
+        double total = 0.0;
+        for (double w : weights) {
+            if (w < 0 || Double.isNaN(w)) {
+                throw new IllegalArgumentException("[ALIAS-ERROR] Weights must be non-negative.");
+            }
+            total += w;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("[ALIAS-ERROR] Weights must not all be zero.");
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) small[numSmall++] = i;
+            else large[numLarge++] = i;
+        }
+
+        while (numSmall > 0 && numLarge > 0) {
+            int s = small[--numSmall];
+            int l = large[--numLarge];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[numSmall++] = l;
+            else large[numLarge++] = l;
+        }
+        // leftovers are 1.0 up to rounding
+        while (numLarge > 0) {
+            int l = large[--numLarge];
+            probability[l] = 1.0;
+            alias[l] = l;
+        }
+        while (numSmall > 0) {
+            int s = small[--numSmall];
+            probability[s] = 1.0;
+            alias[s] = s;
+        }
+    }
+
+    // u uniform in [0, 1): the integer part picks a column, the fraction picks it or its alias
+    public int sample(double u) {
+        double x = u * probability.length;
+        int column = (int) x;
+        return (x - column < probability[column]) ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
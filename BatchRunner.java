@@ -1,131 +1,167 @@
-
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class BatchRunner {
 
-
-    public static double stdDevMultiplier = 0.5;
-    public static boolean misdiagnosis = true;
-    public static int reassessmentDelay = 120;
-    public static boolean reassessmentEnabled = true;
-
-
-    public static void main(String[] args) {
+    // result key and report title, in export order
+    private static final String[][] METRICS = {
+            {"ED_LOS", "ED Overall LOS (mins)"},
+            {"ERU_LOS", "ERU LOS (mins)"},
+            {"RED_LOS", "RED Zone LOS (mins)"},
+            {"GREEN_LOS", "GREEN Zone LOS (mins)"},
+            {"FAST_TRACK_LOS", "FAST TRACK LOS (mins)"},
+            {"DEATHS", "Total Deaths"},
+            {"LWBS_RATE", "LWBS Rate (%)"},
+            {"ED_LOS_P90", "ED LOS p90, pooled (mins)"},
+            {"DOOR_TO_PROVIDER_P90", "ED Door-to-Provider p90, pooled (mins)"}
+    };
+
+
+    public static void main(String[] args) throws IOException {
         //setup
         int runsPerScenario = 10;
         int simDays = 365;
         double[] stdDevMultipliers = {0.0, 0.5, 1.0, 1.5, 2.0};
         int[] reassessmentDelays = {0, 60, 120, 180, 240};
-
-        //store data
-        Map<String, Map<Double, Double>> edLosResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> eruLosResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> redLosResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> greenLosResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> fastTrackLosResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> deathsResults = new LinkedHashMap<>();
-        Map<String, Map<Double, Double>> lwbsResults = new LinkedHashMap<>();
-
-        //experiment 1: baseline - no misdiagnosis at all
-        System.out.println("Running Experiment 1: Baseline (No Misdiagnosis)...");
-        String baselinePolicy = "Baseline";
-        misdiagnosis = false;
-        reassessmentEnabled = false;
-        stdDevMultiplier = 0.0; // unused
-        Map<String, Double> baselineResult = runBatch(runsPerScenario, simDays);
-        // baseline results stored across all stdDev columns for easy comparison
-        for (double mult : stdDevMultipliers) {
-            storeResult(edLosResults, baselinePolicy, mult, baselineResult.get("ED_LOS"));
-            storeResult(eruLosResults, baselinePolicy, mult, baselineResult.get("ERU_LOS"));
-            storeResult(redLosResults, baselinePolicy, mult, baselineResult.get("RED_LOS"));
-            storeResult(greenLosResults, baselinePolicy, mult, baselineResult.get("GREEN_LOS"));
-            storeResult(fastTrackLosResults, baselinePolicy, mult, baselineResult.get("FAST_TRACK_LOS"));
-            storeResult(deathsResults, baselinePolicy, mult, baselineResult.get("DEATHS"));
-            storeResult(lwbsResults, baselinePolicy, mult, baselineResult.get("LWBS_RATE"));
+        long masterSeed = new SplittableRandom().nextLong();
+        RunConfig base = RunConfig.defaults();
+        if (args.length > 0) {
+            base = base.withScenario(Scenario.load(Path.of(args[0]))); // ED layout, staffing and demand
         }
 
+        List<Experiment> experiments = new ArrayList<>();
+
+        //experiment 1: baseline - no misdiagnosis at all, shown in every stdDev column for easy comparison
+        experiments.add(new Experiment("Baseline", stdDevMultipliers,
+                base.withMisdiagnosis(false, 0.0).withReassessment(false, base.reassessmentDelay)));
+
         //experiment 2: misdiagnosis only - no reassessment
-        System.out.println("\nRunning Experiment 2: Misdiagnosis Only...");
-        String misdiagnosisPolicy = "Misdiagnosis Only";
-        misdiagnosis = true;
-        reassessmentEnabled = false;
         for (double mult : stdDevMultipliers) {
-            stdDevMultiplier = mult;
-            System.out.printf("  - Running with stdDevMultiplier = %.1f%n", mult);
-            Map<String, Double> result = runBatch(runsPerScenario, simDays);
-            storeResult(edLosResults, misdiagnosisPolicy, mult, result.get("ED_LOS"));
-            storeResult(eruLosResults, misdiagnosisPolicy, mult, result.get("ERU_LOS"));
-            storeResult(redLosResults, misdiagnosisPolicy, mult, result.get("RED_LOS"));
-            storeResult(greenLosResults, misdiagnosisPolicy, mult, result.get("GREEN_LOS"));
-            storeResult(fastTrackLosResults, misdiagnosisPolicy, mult, result.get("FAST_TRACK_LOS"));
-            storeResult(deathsResults, misdiagnosisPolicy, mult, result.get("DEATHS"));
-            storeResult(lwbsResults, misdiagnosisPolicy, mult, result.get("LWBS_RATE"));
+            experiments.add(new Experiment("Misdiagnosis Only", new double[]{mult},
+                    base.withMisdiagnosis(true, mult).withReassessment(false, base.reassessmentDelay)));
         }
 
         //experiment 3: misdiagnosis with reassessment
-        System.out.println("\nRunning Experiment 3: Misdiagnosis with Reassessment...");
-        misdiagnosis = true;
-        reassessmentEnabled = true;
         for (int delay : reassessmentDelays) {
-            reassessmentDelay = delay;
             String policyName = String.format("Reassessment (Delay=%d)", delay);
-            System.out.printf("  - Running Policy: %s%n", policyName);
             for (double mult : stdDevMultipliers) {
-                stdDevMultiplier = mult;
-                System.out.printf("    - Running with stdDevMultiplier = %.1f%n", mult);
-                Map<String, Double> result = runBatch(runsPerScenario, simDays);
-                storeResult(edLosResults, policyName, mult, result.get("ED_LOS"));
-                storeResult(eruLosResults, policyName, mult, result.get("ERU_LOS"));
-                storeResult(redLosResults, policyName, mult, result.get("RED_LOS"));
-                storeResult(greenLosResults, policyName, mult, result.get("GREEN_LOS"));
-                storeResult(fastTrackLosResults, policyName, mult, result.get("FAST_TRACK_LOS"));
-                storeResult(deathsResults, policyName, mult, result.get("DEATHS"));
-                storeResult(lwbsResults, policyName, mult, result.get("LWBS_RATE"));
+                experiments.add(new Experiment(policyName, new double[]{mult},
+                        base.withMisdiagnosis(true, mult).withReassessment(true, delay)));
+            }
+        }
+
+        // replication i of every scenario shares seed i (common random numbers)
+        long[] seeds = ReplicationExecutor.seeds(masterSeed, runsPerScenario);
+        List<RunConfig> configs = new ArrayList<>();
+        for (Experiment experiment : experiments) {
+            for (long seed : seeds) {
+                configs.add(experiment.config.withSeed(seed));
+            }
+        }
+
+        List<ReplicationResult> replications;
+        try (ReplicationExecutor executor = new ReplicationExecutor()) {
+            System.out.printf("Running %d scenarios x %d replications on %d threads (master seed %d)...%n",
+                    experiments.size(), runsPerScenario, executor.getParallelism(), masterSeed);
+            replications = executor.run(configs, simDays, ReplicationResult::new);
+        }
+
+        //store data, in scenario order whatever order the runs finished in
+        Map<String, Map<String, Map<Double, Double>>> tables = new LinkedHashMap<>();
+        for (String[] metric : METRICS) {
+            tables.put(metric[0], new LinkedHashMap<>());
+        }
+        for (int s = 0; s < experiments.size(); s++) {
+            Experiment experiment = experiments.get(s);
+            Map<String, Double> result = aggregate(replications.subList(s * runsPerScenario, (s + 1) * runsPerScenario));
+            for (double mult : experiment.columns) {
+                for (String[] metric : METRICS) {
+                    storeResult(tables.get(metric[0]), experiment.policy, mult, result.get(metric[0]));
+                }
             }
         }
 
         //results
         System.out.println("\n\n All experiments complete...\n");
-        exportResults("ED Overall LOS (mins)", edLosResults, stdDevMultipliers);
-        exportResults("ERU LOS (mins)", eruLosResults, stdDevMultipliers);
-        exportResults("RED Zone LOS (mins)", redLosResults, stdDevMultipliers);
-        exportResults("GREEN Zone LOS (mins)", greenLosResults, stdDevMultipliers);
-        exportResults("FAST TRACK LOS (mins)", fastTrackLosResults, stdDevMultipliers);
-        exportResults("Total Deaths", deathsResults, stdDevMultipliers);
-        exportResults("LWBS Rate (%)", lwbsResults, stdDevMultipliers);
+        for (String[] metric : METRICS) {
+            exportResults(metric[1], tables.get(metric[0]), stdDevMultipliers);
+        }
+    }
+
+    // one row of the report: policy name, the stdDev columns it fills, and its run configuration
+    private static class Experiment {
+        final String policy;
+        final double[] columns;
+        final RunConfig config;
+
+        Experiment(String policy, double[] columns, RunConfig config) {
+            this.policy = policy;
+            this.columns = columns;
+            this.config = config;
+        }
+    }
+
+    // what a finished replication contributes; the Simulator itself is dropped on the worker
+    private static class ReplicationResult {
+        final double edLOS;
+        final double eruLOS;
+        final double redLOS;
+        final double greenLOS;
+        final double fastTrackLOS;
+        final double deaths;
+        final double lwbsRate;
+        final QuantileSketch edLOSSketch; // only the two sketches the p90 tables read
+        final QuantileSketch doorToProviderSketch;
+
+        ReplicationResult(Simulator sim) {
+            edLOS = Statistics.calculateMean(sim, Simulator.StationName.ED, Statistics.Property.RESPONSE_TIME);
+            eruLOS = Statistics.calculateMean(sim, Simulator.StationName.ERU, Statistics.Property.RESPONSE_TIME);
+            redLOS = Statistics.calculateMean(sim, Simulator.StationName.RED, Statistics.Property.RESPONSE_TIME);
+            greenLOS = Statistics.calculateMean(sim, Simulator.StationName.GREEN, Statistics.Property.RESPONSE_TIME);
+            fastTrackLOS = Statistics.calculateMean(sim, Simulator.StationName.FAST_TRACK, Statistics.Property.RESPONSE_TIME);
+            deaths = sim.getTotalDeaths();
+            lwbsRate = sim.getLWBSRate();
+            edLOSSketch = sim.outcomeSketches.edLOS;
+            doorToProviderSketch = sim.outcomeSketches.doorToProvider;
+        }
     }
 
-    //batch simulations
-    private static Map<String, Double> runBatch(int runs, int simDays) {
-        List<Double> totalLOSList = new ArrayList<>();
-        List<Double> eruLOSList = new ArrayList<>();
-        List<Double> redLOSList = new ArrayList<>();
-        List<Double> greenLOSList = new ArrayList<>();
-        List<Double> fastTrackLOSList = new ArrayList<>();
-        List<Double> totalDeathsList = new ArrayList<>();
-        List<Double> lwbsRateList = new ArrayList<>();
-
-        for (int i = 0; i < runs; i++) {
-            Simulator sim = new Simulator();
-            sim.runForDays(simDays);
-
-            totalLOSList.add(Statistics.calculateMean(sim, Simulator.StationName.ED, Statistics.Property.RESPONSE_TIME));
-            eruLOSList.add(Statistics.calculateMean(sim, Simulator.StationName.ERU, Statistics.Property.RESPONSE_TIME));
-            redLOSList.add(Statistics.calculateMean(sim, Simulator.StationName.RED, Statistics.Property.RESPONSE_TIME));
-            greenLOSList.add(Statistics.calculateMean(sim, Simulator.StationName.GREEN, Statistics.Property.RESPONSE_TIME));
-            fastTrackLOSList.add(Statistics.calculateMean(sim, Simulator.StationName.FAST_TRACK, Statistics.Property.RESPONSE_TIME));
-            totalDeathsList.add((double) sim.getTotalDeaths());
-            lwbsRateList.add(sim.getLWBSRate());
+    //means over one scenario's replications, folded in submission order
+    private static Map<String, Double> aggregate(List<ReplicationResult> replications) {
+        // across replications; variances are kept for confidence intervals
+        RunningStatistic totalLOS = new RunningStatistic();
+        RunningStatistic eruLOS = new RunningStatistic();
+        RunningStatistic redLOS = new RunningStatistic();
+        RunningStatistic greenLOS = new RunningStatistic();
+        RunningStatistic fastTrackLOS = new RunningStatistic();
+        RunningStatistic totalDeaths = new RunningStatistic();
+        RunningStatistic lwbsRate = new RunningStatistic();
+        QuantileSketch pooledEdLOS = new QuantileSketch(); // percentiles over all replications' patients
+        QuantileSketch pooledDoorToProvider = new QuantileSketch();
+
+        for (ReplicationResult replication : replications) {
+            addFinite(totalLOS, replication.edLOS);
+            addFinite(eruLOS, replication.eruLOS);
+            addFinite(redLOS, replication.redLOS);
+            addFinite(greenLOS, replication.greenLOS);
+            addFinite(fastTrackLOS, replication.fastTrackLOS);
+            addFinite(totalDeaths, replication.deaths);
+            addFinite(lwbsRate, replication.lwbsRate);
+            pooledEdLOS.merge(replication.edLOSSketch);
+            pooledDoorToProvider.merge(replication.doorToProviderSketch);
         }
 
         Map<String, Double> meanResults = new HashMap<>();
-        meanResults.put("ED_LOS", computeMean(totalLOSList));
-        meanResults.put("ERU_LOS", computeMean(eruLOSList));
-        meanResults.put("RED_LOS", computeMean(redLOSList));
-        meanResults.put("GREEN_LOS", computeMean(greenLOSList));
-        meanResults.put("FAST_TRACK_LOS", computeMean(fastTrackLOSList));
-        meanResults.put("DEATHS", computeMean(totalDeathsList));
-        meanResults.put("LWBS_RATE", computeMean(lwbsRateList));
+        meanResults.put("ED_LOS", meanOrZero(totalLOS));
+        meanResults.put("ERU_LOS", meanOrZero(eruLOS));
+        meanResults.put("RED_LOS", meanOrZero(redLOS));
+        meanResults.put("GREEN_LOS", meanOrZero(greenLOS));
+        meanResults.put("FAST_TRACK_LOS", meanOrZero(fastTrackLOS));
+        meanResults.put("DEATHS", meanOrZero(totalDeaths));
+        meanResults.put("LWBS_RATE", meanOrZero(lwbsRate));
+        meanResults.put("ED_LOS_P90", pooledEdLOS.getQuantile(0.90));
+        meanResults.put("DOOR_TO_PROVIDER_P90", pooledDoorToProvider.getQuantile(0.90));
 
         return meanResults;
     }
@@ -157,10 +193,12 @@ public class BatchRunner {
     }
 
 
-    public static double computeMean(List<Double> data) {
-        if (data == null || data.isEmpty() || data.stream().allMatch(d -> d.isNaN() || d.isInfinite())) {
-            return 0.0;
-        }
-        return data.stream().filter(d -> !d.isNaN() && !d.isInfinite()).mapToDouble(Double::doubleValue).average().orElse(0.0);
+    // NaN or infinite replications (e.g. a zone with no departures) are left out of the means
+    private static void addFinite(RunningStatistic statistic, double value) {
+        if (Double.isFinite(value)) statistic.add(value);
+    }
+
+    private static double meanOrZero(RunningStatistic statistic) {
+        return statistic.getCount() == 0 ? 0.0 : statistic.getMean();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+import java.util.PriorityQueue;
+
+/**
+ * Binary heap backend, kept as the reference implementation for comparisons.
+ */
+public class BinaryHeapEventList implements EventList {
+    private final PriorityQueue<Event> heap = new PriorityQueue<>();
+    private long nextSequence = 0;
+
+    @Override
+    public void add(Event event) {
+        event.sequence = nextSequence++;
+        heap.add(event);
+    }
+
+    @Override
+    public Event poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public Event peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public boolean remove(Event event) {
+        return heap.remove(event);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Calendar queue (R. Brown, 1988): events are hashed by time into a ring of day-buckets,
+ * each bucket a sorted intrusive list chained through Event.next. With the bucket width
+ * re-estimated whenever the ring is resized, enqueue and dequeue are O(1) amortized.
+ */
+public class CalendarQueueEventList implements EventList {
+    private static final int MIN_BUCKETS = 16;
+    private static final int WIDTH_SAMPLE_SIZE = 25;
+
+    private Event[] buckets;
+    private int numBuckets;
+    private double width;       // time span covered by one bucket
+    private int size;
+    private long nextSequence = 0;
+
+    private int lastBucket;     // bucket holding the last dequeued event
+    private long currentDay;    // calendar day (time / width) being scanned in lastBucket
+    private double lastTime;    // time of the last dequeued event
+
+    private int growThreshold;
+    private int shrinkThreshold;
+    private boolean resizeEnabled = true;
+    private final Event[] sampleBuffer = new Event[WIDTH_SAMPLE_SIZE];
+
+    public CalendarQueueEventList() {
+        init(MIN_BUCKETS, 1.0, 0.0);
+    }
+
+    private void init(int nBuckets, double bucketWidth, double startTime) {
+        buckets = new Event[nBuckets];
+        numBuckets = nBuckets;
+        width = bucketWidth;
+        size = 0;
+        lastTime = startTime;
+        currentDay = dayOf(startTime);
+        lastBucket = bucketIndex(currentDay);
+        growThreshold = 2 * nBuckets;
+        shrinkThreshold = nBuckets / 2 - 2;
+    }
+
+    // bucket placement and the dequeue scan share this one rounding so they always agree
+    private long dayOf(double time) {
+        return (long) Math.floor(time / width);
+    }
+
+    private int bucketIndex(long day) {
+        return (int) Math.floorMod(day, (long) numBuckets);
+    }
+
+    @Override
+    public void add(Event event) {
+        event.sequence = nextSequence++;
+        enqueue(event);
+    }
+
+    // internal re-insertions (resize, width sampling) keep the original sequence number
+    private void enqueue(Event event) {
+        long day = dayOf(event.eventTime);
+        int i = bucketIndex(day);
+        insertSorted(i, event);
+        size++;
+
+        // an event scheduled before the last dequeued one (e.g. a negative service time)
+        // moves the scan position back so it is not skipped for a whole year
+        if (event.eventTime < lastTime) {
+            lastTime = event.eventTime;
+            lastBucket = i;
+            currentDay = day;
+        }
+
+        if (resizeEnabled && size > growThreshold) {
+            resize(2 * numBuckets);
+        }
+    }
+
+    private void insertSorted(int i, Event event) {
+        Event head = buckets[i];
+        if (head == null || event.compareTo(head) < 0) {
+            event.next = head;
+            buckets[i] = event;
+            return;
+        }
+        Event prev = head;
+        while (prev.next != null && prev.next.compareTo(event) <= 0) {
+            prev = prev.next;
+        }
+        event.next = prev.next;
+        prev.next = event;
+    }
+
+    // advances the scan position to the bucket holding the earliest event
+    private int locateMin() {
+        int i = lastBucket;
+        long day = currentDay;
+        for (int scanned = 0; scanned < numBuckets; scanned++) {
+            Event head = buckets[i];
+            if (head != null && dayOf(head.eventTime) <= day) {
+                lastBucket = i;
+                currentDay = day;
+                return i;
+            }
+            i++;
+            day++;
+            if (i == numBuckets) i = 0;
+        }
+
+        // nothing due within a full year: fall back to a direct search over bucket heads
+        int minBucket = -1;
+        for (int b = 0; b < numBuckets; b++) {
+            Event head = buckets[b];
+            if (head != null && (minBucket < 0 || head.compareTo(buckets[minBucket]) < 0)) {
+                minBucket = b;
+            }
+        }
+        lastBucket = minBucket;
+        currentDay = dayOf(buckets[minBucket].eventTime);
+        return minBucket;
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) return null;
+
+        int i = locateMin();
+        Event event = buckets[i];
+        buckets[i] = event.next;
+        event.next = null;
+        size--;
+        lastTime = event.eventTime;
+
+        if (resizeEnabled && size < shrinkThreshold && numBuckets > MIN_BUCKETS) {
+            resize(numBuckets / 2);
+        }
+        return event;
+    }
+
+    @Override
+    public Event peek() {
+        if (size == 0) return null;
+        return buckets[locateMin()];
+    }
+
+    @Override
+    public boolean remove(Event event) {
+        int i = bucketIndex(dayOf(event.eventTime));
+        Event prev = null;
+        for (Event e = buckets[i]; e != null; prev = e, e = e.next) {
+            if (e == event) {
+                if (prev == null) buckets[i] = e.next;
+                else prev.next = e.next;
+                e.next = null;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        init(MIN_BUCKETS, 1.0, 0.0);
+        nextSequence = 0;
+    }
+
+    private void resize(int newNumBuckets) {
+        double newWidth = estimateWidth();
+
+        // unlink every event into a single chain, then rehash into the new ring
+        Event chain = null;
+        for (int b = 0; b < numBuckets; b++) {
+            Event e = buckets[b];
+            while (e != null) {
+                Event next = e.next;
+                e.next = chain;
+                chain = e;
+                e = next;
+            }
+        }
+
+        double startTime = lastTime;
+        init(newNumBuckets, newWidth, startTime);
+        resizeEnabled = false;
+        while (chain != null) {
+            Event next = chain.next;
+            chain.next = null;
+            enqueue(chain);
+            chain = next;
+        }
+        resizeEnabled = true;
+        growThreshold = 2 * newNumBuckets;
+        shrinkThreshold = newNumBuckets / 2 - 2;
+    }
+
+    // Brown's heuristic: three times the average separation of the next few events,
+    // ignoring separations much larger than average
+    private double estimateWidth() {
+        int n = Math.min(size, WIDTH_SAMPLE_SIZE);
+        if (n < 2) return width;
+
+        resizeEnabled = false;
+        double savedLastTime = lastTime;
+        for (int k = 0; k < n; k++) {
+            sampleBuffer[k] = poll();
+        }
+        double first = sampleBuffer[0].eventTime;
+        double last = sampleBuffer[n - 1].eventTime;
+        double avgSeparation = (last - first) / (n - 1);
+
+        double sum = 0.0;
+        int count = 0;
+        for (int k = 1; k < n; k++) {
+            double separation = sampleBuffer[k].eventTime - sampleBuffer[k - 1].eventTime;
+            if (separation <= 2.0 * avgSeparation) {
+                sum += separation;
+                count++;
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            enqueue(sampleBuffer[k]);
+            sampleBuffer[k] = null;
+        }
+        lastTime = Math.min(savedLastTime, first);
+        resizeEnabled = true;
+
+        double estimate = (count > 0) ? 3.0 * sum / count : 0.0;
+        return (estimate > 0.0) ? estimate : width;
+    }
+}
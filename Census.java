@@ -0,0 +1,255 @@
+import java.util.Arrays;
+
+/**
+ * Running patient counts per station and ED-wide: waiting in the queue, in a bed waiting
+ * for staff, in treatment, and the LWBS, death and disposition tallies. Every transition
+ * updates the counters directly, so all reads are O(1).
+ *
+ * Each station's levels (including busy beds and staff on duty) are also integrated over
+ * time: before a level changes, the station's areas advance by level * elapsed time.
+ * That gives time-averaged L, Lq and utilization, overall and per shift, without a pass
+ * over patients.
+ */
+public class Census {
+    private static final int NUM_STATIONS = Simulator.StationName.values().length;
+    private static final int MAX_SHIFTS = 24;
+
+    enum Measure {
+        WAITING,           // Lq
+        WAITING_FOR_STAFF, // in a bed, no staff yet
+        IN_TREATMENT,      // staff (or servers) busy
+        BUSY_BEDS,
+        STAFF_ON_DUTY
+    }
+    private static final int NUM_MEASURES = Measure.values().length;
+
+    private final int[] waiting = new int[NUM_STATIONS];
+    private final int[] waitingForStaff = new int[NUM_STATIONS];
+    private final int[] inTreatment = new int[NUM_STATIONS];
+    private final int[] lwbs = new int[NUM_STATIONS];
+    private final int[] deaths = new int[NUM_STATIONS];
+    private final int[] disposed = new int[NUM_STATIONS];
+    private final int[] busyBeds = new int[NUM_STATIONS];
+    private final int[] staffOnDuty = new int[NUM_STATIONS];
+
+    // time integrals: area[measure][station] covers integrationStart..lastChange[station]
+    private final Simulator simulator; // clock
+    private final double[] lastChange = new double[NUM_STATIONS];
+    private final double[][] area = new double[NUM_MEASURES][NUM_STATIONS];
+    private double integrationStart = 0.0;
+
+    // per-shift areas, accumulated whenever a shift closes
+    private final double[][][] shiftArea = new double[NUM_MEASURES][NUM_STATIONS][MAX_SHIFTS];
+    private final double[] shiftDuration = new double[MAX_SHIFTS];
+    private final double[][] areaAtShiftStart = new double[NUM_MEASURES][NUM_STATIONS];
+    private int currentShift = -1;
+    private double shiftStart = 0.0;
+
+    private int waitingRoomTotal = 0; // queues the LWBS model sees (all but reassessment)
+    private int waitingTotal = 0;
+    private int waitingForStaffTotal = 0;
+    private int inTreatmentTotal = 0;
+    private int lwbsTotal = 0;
+    private int deathsTotal = 0;
+    private int disposedTotal = 0;
+
+    public Census(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    // one multiply-add per measure; a no-op when nothing has elapsed
+    private void advance(int s) {
+        double dt = simulator.currentTime - lastChange[s];
+        if (dt == 0) return;
+        area[Measure.WAITING.ordinal()][s] += waiting[s] * dt;
+        area[Measure.WAITING_FOR_STAFF.ordinal()][s] += waitingForStaff[s] * dt;
+        area[Measure.IN_TREATMENT.ordinal()][s] += inTreatment[s] * dt;
+        area[Measure.BUSY_BEDS.ordinal()][s] += busyBeds[s] * dt;
+        area[Measure.STAFF_ON_DUTY.ordinal()][s] += staffOnDuty[s] * dt;
+        lastChange[s] = simulator.currentTime;
+    }
+
+    private int level(Measure measure, int s) {
+        return switch (measure) {
+            case WAITING -> waiting[s];
+            case WAITING_FOR_STAFF -> waitingForStaff[s];
+            case IN_TREATMENT -> inTreatment[s];
+            case BUSY_BEDS -> busyBeds[s];
+            case STAFF_ON_DUTY -> staffOnDuty[s];
+        };
+    }
+
+    public void changeWaiting(Simulator.StationName station, int delta) {
+        advance(station.ordinal());
+        waiting[station.ordinal()] += delta;
+        waitingTotal += delta;
+        if (station != Simulator.StationName.REASSESSMENT) waitingRoomTotal += delta;
+    }
+
+    public void changeWaitingForStaff(Simulator.StationName station, int delta) {
+        advance(station.ordinal());
+        waitingForStaff[station.ordinal()] += delta;
+        waitingForStaffTotal += delta;
+    }
+
+    public void changeInTreatment(Simulator.StationName station, int delta) {
+        advance(station.ordinal());
+        inTreatment[station.ordinal()] += delta;
+        inTreatmentTotal += delta;
+    }
+
+    public void changeBusyBeds(Simulator.StationName station, int delta) {
+        advance(station.ordinal());
+        busyBeds[station.ordinal()] += delta;
+    }
+
+    public void setStaffOnDuty(Simulator.StationName station, int staff) {
+        advance(station.ordinal());
+        staffOnDuty[station.ordinal()] = staff;
+    }
+
+    // closes the running shift (if any) into the per-shift areas and starts the given one
+    public void beginShift(int shift) {
+        if (shift < 0 || shift >= MAX_SHIFTS) {
+            throw new IllegalArgumentException("[CENSUS-ERROR] Shift index out of range: " + shift);
+        }
+        double now = simulator.currentTime;
+        for (int s = 0; s < NUM_STATIONS; s++) {
+            advance(s);
+            for (int m = 0; m < NUM_MEASURES; m++) {
+                if (currentShift >= 0) shiftArea[m][s][currentShift] += area[m][s] - areaAtShiftStart[m][s];
+                areaAtShiftStart[m][s] = area[m][s];
+            }
+        }
+        if (currentShift >= 0) shiftDuration[currentShift] += now - shiftStart;
+        currentShift = shift;
+        shiftStart = now;
+    }
+
+    // restarts every time integral, overall and per shift, at the current time
+    public void resetIntegrals() {
+        double now = simulator.currentTime;
+        for (int m = 0; m < NUM_MEASURES; m++) {
+            Arrays.fill(area[m], 0.0);
+            Arrays.fill(areaAtShiftStart[m], 0.0);
+            for (double[] perShift : shiftArea[m]) Arrays.fill(perShift, 0.0);
+        }
+        Arrays.fill(shiftDuration, 0.0);
+        Arrays.fill(lastChange, now);
+        integrationStart = now;
+        shiftStart = now;
+    }
+
+    // time average of a level since the start of integration
+    public double getTimeAverage(Measure measure, Simulator.StationName station) {
+        int s = station.ordinal();
+        double now = simulator.currentTime;
+        double elapsed = now - integrationStart;
+        if (elapsed <= 0) return 0.0;
+        return (area[measure.ordinal()][s] + level(measure, s) * (now - lastChange[s])) / elapsed;
+    }
+
+    // time average over all closed periods of one shift; NaN if that shift never closed
+    public double getShiftAverage(Measure measure, Simulator.StationName station, int shift) {
+        if (shiftDuration[shift] <= 0) return Double.NaN;
+        return shiftArea[measure.ordinal()][station.ordinal()][shift] / shiftDuration[shift];
+    }
+
+    // patients at the station: queue, bed without staff, and in treatment
+    public double getTimeAverageInSystem(Simulator.StationName station) {
+        return getTimeAverage(Measure.WAITING, station)
+                + getTimeAverage(Measure.WAITING_FOR_STAFF, station)
+                + getTimeAverage(Measure.IN_TREATMENT, station);
+    }
+
+    // measured busy fraction of the staff (or servers) on duty
+    public double getUtilization(Simulator.StationName station) {
+        double onDuty = getTimeAverage(Measure.STAFF_ON_DUTY, station);
+        return onDuty > 0 ? getTimeAverage(Measure.IN_TREATMENT, station) / onDuty : 0.0;
+    }
+
+    public double getShiftUtilization(Simulator.StationName station, int shift) {
+        double onDuty = getShiftAverage(Measure.STAFF_ON_DUTY, station, shift);
+        return onDuty > 0 ? getShiftAverage(Measure.IN_TREATMENT, station, shift) / onDuty : Double.NaN;
+    }
+
+    public double getIntegrationTime() {
+        return simulator.currentTime - integrationStart;
+    }
+
+    public void recordLWBS(Simulator.StationName station) {
+        lwbs[station.ordinal()]++;
+        lwbsTotal++;
+    }
+
+    public void recordDeath(Simulator.StationName station) {
+        deaths[station.ordinal()]++;
+        deathsTotal++;
+    }
+
+    public void recordDisposal(Simulator.StationName station) {
+        disposed[station.ordinal()]++;
+        disposedTotal++;
+    }
+
+    public int getWaiting(Simulator.StationName station) {
+        return waiting[station.ordinal()];
+    }
+
+    public int getWaitingForStaff(Simulator.StationName station) {
+        return waitingForStaff[station.ordinal()];
+    }
+
+    public int getInTreatment(Simulator.StationName station) {
+        return inTreatment[station.ordinal()];
+    }
+
+    public int getBusyBeds(Simulator.StationName station) {
+        return busyBeds[station.ordinal()];
+    }
+
+    public int getStaffOnDuty(Simulator.StationName station) {
+        return staffOnDuty[station.ordinal()];
+    }
+
+    public int getLWBS(Simulator.StationName station) {
+        return lwbs[station.ordinal()];
+    }
+
+    public int getDeaths(Simulator.StationName station) {
+        return deaths[station.ordinal()];
+    }
+
+    public int getDisposed(Simulator.StationName station) {
+        return disposed[station.ordinal()];
+    }
+
+    // patients in the ED's waiting rooms (the LWBS model's host queue size)
+    public int getWaitingRoomTotal() {
+        return waitingRoomTotal;
+    }
+
+    public int getWaiting() {
+        return waitingTotal;
+    }
+
+    public int getWaitingForStaff() {
+        return waitingForStaffTotal;
+    }
+
+    public int getInTreatment() {
+        return inTreatmentTotal;
+    }
+
+    public int getLWBS() {
+        return lwbsTotal;
+    }
+
+    public int getDeaths() {
+        return deathsTotal;
+    }
+
+    public int getDisposed() {
+        return disposedTotal;
+    }
+}
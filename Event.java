@@ -1,20 +1,32 @@
 public class Event implements Comparable<Event> {
     public enum EventType {
-        edArrival,
-        sortDeparture,
-        registerDeparture,
-        triageDeparture,
-        zoneDeparture,
-        decideToLWBS,
+        // priority orders simultaneous events: departures free capacity before
+        // arrivals claim it, and LWBS decisions see the settled state of the instant
+        edArrival(3),
+        sortDeparture(1),
+        registerDeparture(1),
+        triageDeparture(1),
+        zoneDeparture(1),
+        decideToLWBS(4),
 
-        reassessmentCheck,
-        reassessmentDeparture
+        reassessmentCheck(2),
+        reassessmentDeparture(1),
 
+        shiftChange(0); // staffing applies before anything else at a shift boundary
+
+        public final int priority;
+
+        EventType(int priority) {
+            this.priority = priority;
+        }
         }
 
     public double eventTime;
     public EventType type;
     public Patient patient;
+    public long sequence; // insertion order, stamped by the EventList; final tie-breaker
+    public boolean cancelled; // tombstone: left in the calendar and skipped when polled
+    Event next; // intrusive link used by CalendarQueueEventList buckets
 
     public Event(double eventTime, EventType type, Patient patient) {
         this.eventTime = eventTime;
@@ -24,6 +36,10 @@ public class Event implements Comparable<Event> {
 
     @Override
     public int compareTo(Event other) {
-        return Double.compare(this.eventTime, other.eventTime);
+        int byTime = Double.compare(this.eventTime, other.eventTime);
+        if (byTime != 0) return byTime;
+        int byType = Integer.compare(this.type.priority, other.type.priority);
+        if (byType != 0) return byType;
+        return Long.compare(this.sequence, other.sequence);
     }
 }
@@ -0,0 +1,34 @@
+/**
+ * Future event list (simulation calendar) used by the Simulator and all stations.
+ * Backends are interchangeable so the same scenario can be compared across them.
+ */
+public interface EventList {
+
+    enum Backend {
+        BINARY_HEAP,    // java.util.PriorityQueue, O(log n) enqueue/dequeue
+        CALENDAR_QUEUE  // Brown's calendar queue, O(1) amortized enqueue/dequeue
+    }
+
+    void add(Event event);
+
+    // removes and returns the earliest event, or null if the calendar is empty
+    Event poll();
+
+    // returns the earliest event without removing it, or null if the calendar is empty
+    Event peek();
+
+    boolean remove(Event event);
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    static EventList create(Backend backend) {
+        return switch (backend) {
+            case BINARY_HEAP -> new BinaryHeapEventList();
+            case CALENDAR_QUEUE -> new CalendarQueueEventList();
+        };
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Free list of recycled Event objects, chained through Event.next, so the
+ * steady-state event loop does not allocate a new Event per state transition.
+ */
+public class EventPool {
+    private Event free;
+    private int freeCount;
+    private long allocated; // events created because the free list was empty
+
+    public Event acquire(double eventTime, Event.EventType type, Patient patient) {
+        Event event = free;
+        if (event == null) {
+            allocated++;
+            return new Event(eventTime, type, patient);
+        }
+        free = event.next;
+        freeCount--;
+        event.next = null;
+        event.eventTime = eventTime;
+        event.type = type;
+        event.patient = patient;
+        event.cancelled = false;
+        return event;
+    }
+
+    // the caller must not keep any reference (e.g. a patient handle) to a released event
+    public void release(Event event) {
+        event.patient = null;
+        event.next = free;
+        free = event;
+        freeCount++;
+    }
+
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    public long getAllocated() {
+        return allocated;
+    }
+}
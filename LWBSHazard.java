@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Event-driven LWBS engine. Polling mode re-rolls every waiting patient's LWBS check each
+ * lwbsReevaluationPeriod; here the checks a patient would face are grouped into segments
+ * where the hour band, door-to-provider band and ED arrival rate (hourly with the
+ * time-of-day profile) stay constant, and the first check that could succeed is sampled
+ * directly (geometric skip). Only that check, or the start of the next segment, is scheduled.
+ *
+ * The waiting-room census also enters the probability. Each draw uses an upper bound q
+ * computed at a census ceiling above the current census, and a sampled check accepts with
+ * p/q using the census at that moment (thinning). Every check therefore still succeeds with
+ * exactly the probability polling would give it. When the census rises past a patient's
+ * ceiling, that patient is redrawn from the next check.
+ */
+public class LWBSHazard {
+    private final Simulator simulator;
+    private final int censusHeadroom; // patients above the current census covered by each draw
+    private final SplittableRandom random;
+    private final List<Patient> patients = new ArrayList<>(); // patients with a live draw
+    private int lowestCeiling = Integer.MAX_VALUE;
+    long redraws = 0;
+
+    public LWBSHazard(Simulator simulator) {
+        this.simulator = simulator;
+        this.random = simulator.randomStreams.get(RandomStreams.Stream.LWBS);
+        this.censusHeadroom = simulator.config.lwbsCensusHeadroom;
+    }
+
+    // sample the patient's next LWBS check from the check due at firstCheckTime onwards
+    public void schedule(Patient patient, double firstCheckTime) {
+        if (patient.lwbsEvent != null) simulator.cancelEvent(patient.lwbsEvent);
+        double period = simulator.lwbsReevaluationPeriod;
+        int hourBand = LWBSModel.hourBucket(Utils.getDayTimeFromMins(firstCheckTime));
+        int dtpBand = LWBSModel.dtpBucket(firstCheckTime - patient.sortingAT);
+        double arrivalRate = simulator.getArrivalRateByTime(firstCheckTime);
+
+        // checks in this segment: bands and arrival rate unchanged, so every check shares the bound
+        int checksInSegment = 1;
+        while (true) {
+            double t = firstCheckTime + checksInSegment * period;
+            if (LWBSModel.hourBucket(Utils.getDayTimeFromMins(t)) != hourBand) break;
+            if (LWBSModel.dtpBucket(t - patient.sortingAT) != dtpBand) break;
+            if (simulator.getArrivalRateByTime(t) != arrivalRate) break;
+            checksInSegment++;
+        }
+
+        int ceiling = simulator.getTotalPatientsInWaitingAreas() + censusHeadroom;
+        double bound = Math.min(1.0, patient.getLWBSCheckProbability(simulator, ceiling, firstCheckTime));
+
+        // failures before the first candidate check
+        long skipped;
+        if (bound >= 1.0) skipped = 0;
+        else if (bound <= 0.0) skipped = Long.MAX_VALUE;
+        else skipped = (long) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log1p(-bound));
+
+        patient.lwbsCandidate = skipped < checksInSegment;
+        patient.lwbsBound = bound;
+        patient.lwbsCeiling = ceiling;
+        patient.lwbsFirstCheckTime = firstCheckTime;
+        double eventTime = firstCheckTime + (patient.lwbsCandidate ? skipped : checksInSegment) * period;
+        patient.lwbsEvent = simulator.schedule(eventTime, Event.EventType.decideToLWBS, patient);
+
+        if (patient.lwbsHazardIndex < 0) {
+            patient.lwbsHazardIndex = patients.size();
+            patients.add(patient);
+        }
+        lowestCeiling = Math.min(lowestCeiling, ceiling);
+    }
+
+    // thinning step for a sampled check whose true probability is checkProbability
+    public boolean accept(Patient patient, double checkProbability) {
+        return random.nextDouble() * patient.lwbsBound < checkProbability;
+    }
+
+    public void remove(Patient patient) {
+        int index = patient.lwbsHazardIndex;
+        if (index < 0) return;
+        Patient last = patients.remove(patients.size() - 1);
+        if (last != patient) {
+            patients.set(index, last);
+            last.lwbsHazardIndex = index;
+        }
+        patient.lwbsHazardIndex = -1;
+    }
+
+    // called after every event: redraw patients whose ceiling the census has passed
+    public void checkCensus() {
+        int census = simulator.getTotalPatientsInWaitingAreas();
+        if (census <= lowestCeiling) return;
+
+        double now = simulator.currentTime;
+        double period = simulator.lwbsReevaluationPeriod;
+        lowestCeiling = Integer.MAX_VALUE;
+        for (int i = 0; i < patients.size(); i++) {
+            Patient patient = patients.get(i);
+            if (patient.lwbsCeiling >= census || patient.lwbsEvent == null) {
+                if (patient.lwbsEvent != null) lowestCeiling = Math.min(lowestCeiling, patient.lwbsCeiling);
+                continue;
+            }
+            // checks before now were settled under the old bound; redraw from the next one
+            double elapsed = Math.max(0.0, now - patient.lwbsFirstCheckTime);
+            double nextCheck = patient.lwbsFirstCheckTime + Math.ceil(elapsed / period) * period;
+            simulator.cancelEvent(patient.lwbsEvent);
+            patient.lwbsEvent = null;
+            schedule(patient, nextCheck);
+            redraws++;
+        }
+    }
+
+    public int size() {
+        return patients.size();
+    }
+}
@@ -2,21 +2,48 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class LWBSModel {
-    private static LWBSModel instance;
     private final double lwbsBaseRate = 0.07; // 7% baseline LWBS rate
     private final Map<String, Double> oddsRatios;
     private final Map<String, Double> coefficients;
 
+    // compiled kernel: z = bucketOffsets[hour][dtp][acuityLow][ems] + age/arrival-rate/queue terms
+    public static final int NUM_HOUR_BUCKETS = 4;
+    public static final int NUM_DTP_BUCKETS = 5;
+    private static final String[] HOUR_PREDICTORS = {"hour_12AM_6AM", "hour_6AM_12PM", "hour_12PM_6PM", "hour_6PM_12AM"};
+    private static final String[] DTP_PREDICTORS = {"dtp_lessEq_30", "dtp_30_59", "dtp_60_89", "dtp_90_119", "dtp_120plus"};
+
+    // built eagerly, after the predictor tables above, so threads share one fully built model
+    private static final LWBSModel instance = new LWBSModel();
+    private final double[] bucketOffsets = new double[NUM_HOUR_BUCKETS * NUM_DTP_BUCKETS * 4];
+    private final double ageCoefficient;
+    private final double arrivalRateCoefficient;
+    private final double hostQueueCoefficient;
+
     // Singleton pattern for efficiency
     private LWBSModel() {
         this.oddsRatios = initializeOddsRatios();
         this.coefficients = computeLogOdds();
+
+        this.ageCoefficient = coefficients.getOrDefault("age", 0.0);
+        this.arrivalRateCoefficient = coefficients.getOrDefault("arrivalRatePerHour", 0.0);
+        this.hostQueueCoefficient = coefficients.getOrDefault("hostQueueSize", 0.0);
+        double intercept = Math.log(lwbsBaseRate / (1 - lwbsBaseRate));
+        for (int hour = 0; hour < NUM_HOUR_BUCKETS; hour++) {
+            for (int dtp = 0; dtp < NUM_DTP_BUCKETS; dtp++) {
+                for (int acuityLow = 0; acuityLow <= 1; acuityLow++) {
+                    for (int ems = 0; ems <= 1; ems++) {
+                        bucketOffsets[bucketIndex(hour, dtp, acuityLow, ems)] = intercept
+                                + coefficients.getOrDefault(HOUR_PREDICTORS[hour], 0.0)
+                                + coefficients.getOrDefault(DTP_PREDICTORS[dtp], 0.0)
+                                + acuityLow * coefficients.getOrDefault("acuity_low", 0.0)
+                                + ems * coefficients.getOrDefault("arrivalMode_EMS", 0.0);
+                    }
+                }
+            }
+        }
     }
 
     public static LWBSModel getInstance() {
-        if (instance == null) {
-            instance = new LWBSModel();
-        }
         return instance;
     }
 
@@ -74,21 +101,37 @@ public class LWBSModel {
             int currentHour
         ) {
 
-        Map<String, Double> predictorValues = buildPatientPredictors(
-            patient, 
-            hostQueueLength, 
-            currentArrivalRate,
-            doorToProviderTime, 
-            currentHour
-        );
+        int acuityLow = (patient.acuityCode == PatientTable.ACUITY_LOW) ? 1 : 0;
+        int ems = (patient.arrivalModeCode == PatientTable.AMBULANCE) ? 1 : 0;
+        double z = bucketOffsets[bucketIndex(hourBucket(currentHour), dtpBucket(doorToProviderTime), acuityLow, ems)]
+                + ageCoefficient * patient.age
+                + arrivalRateCoefficient * currentArrivalRate
+                + hostQueueCoefficient * hostQueueLength;
 
-        double probability = computeProbability(predictorValues);
-        
-        return probability;
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    public static int hourBucket(int hour) {
+        if (hour >= 0 && hour < 6) return 0;
+        if (hour >= 6 && hour < 12) return 1;
+        if (hour >= 12 && hour < 18) return 2;
+        return 3;
+    }
+
+    public static int dtpBucket(double dtpMinutes) {
+        if (dtpMinutes <= 30) return 0;
+        if (dtpMinutes <= 59) return 1;
+        if (dtpMinutes <= 89) return 2;
+        if (dtpMinutes <= 119) return 3;
+        return 4;
+    }
+
+    private static int bucketIndex(int hourBucket, int dtpBucket, int acuityLow, int ems) {
+        return ((hourBucket * NUM_DTP_BUCKETS + dtpBucket) * 2 + acuityLow) * 2 + ems;
     }
 
     /**
-     * Build predictor values dynamically based on patient and system state
+     * Build predictor values dynamically based on patient and system state (debug path)
      */
     private Map<String, Double> buildPatientPredictors(
             Patient patient, 
@@ -163,33 +206,6 @@ public class LWBSModel {
         }
     }
 
-    /**
-     * Compute LWBS probability using logistic regression
-     */
-    private double computeProbability(Map<String, Double> patientPredictorValues) {
-        if (coefficients.isEmpty()) {
-            throw new IllegalArgumentException("Log coefficients cannot be empty.");
-        }
-        if (patientPredictorValues.isEmpty()) {
-            throw new IllegalArgumentException("Patient predictor values cannot be empty.");
-        }
-
-        // Calculate intercept (log-odds of baseline probability)
-        double intercept = Math.log(lwbsBaseRate / (1 - lwbsBaseRate));
-        double z = intercept;
-
-        // Calculate z = intercept + Σ(βi * xi)
-        for (Map.Entry<String, Double> entry : coefficients.entrySet()) {
-            String predictor = entry.getKey();
-            double logBeta = entry.getValue();
-            double xi = patientPredictorValues.getOrDefault(predictor, 0.0);
-            z += logBeta * xi;
-        }
-
-        // Return probability P(LWBS=1|X) = 1 / (1 + e^(-z))
-        return 1.0 / (1.0 + Math.exp(-z));
-    }
-
     /**
      * Debug method to see detailed calculation
      */
@@ -7,7 +7,8 @@ public abstract class Metrics {
     protected double realResponseTime; // E[T] - Expected Response Time
     protected int totalProcessed; // (X) - Throughput
     protected int currentQueueSize; // (NQ) - Current Queue Size
-    protected double utilization; // (ρ) - Utilization
+    protected double utilization; // (ρ) - Utilization, measured busy fraction
+    protected double offeredLoad; // λ / μ
     protected double patientsInSystem; // (N) - Total Patients in System
     protected Simulator.StationName stationName;
     protected int totalArrivals;
@@ -25,6 +26,7 @@ public abstract class Metrics {
         totalProcessed = 0;
         currentQueueSize = 0;
         utilization = 0.0;
+        offeredLoad = 0.0;
         patientsInSystem = 0.0;
         efficiency = 0.0;
     }
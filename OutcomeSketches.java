@@ -0,0 +1,99 @@
+/**
+ * Percentile sketches for door-to-provider time and length of stay: ED-wide, by ESI level,
+ * by hour of ED arrival, and per zone. Fed as patients leave a zone or are disposed, so no
+ * patient list is needed to report p50/p90/p95. Merge the sketches of several replications
+ * to get pooled percentiles.
+ */
+public class OutcomeSketches {
+    static final double[] REPORTED_QUANTILES = {0.50, 0.90, 0.95};
+    private static final int NUM_ESI = 6; // index 1..5
+    private static final int NUM_HOURS = 24;
+    private static final int NUM_STATIONS = Simulator.StationName.values().length;
+
+    final QuantileSketch edLOS = new QuantileSketch();
+    final QuantileSketch doorToProvider = new QuantileSketch();
+    final QuantileSketch[] edLOSByESI = newSketches(NUM_ESI);
+    final QuantileSketch[] doorToProviderByESI = newSketches(NUM_ESI);
+    final QuantileSketch[] edLOSByHour = newSketches(NUM_HOURS);
+    final QuantileSketch[] doorToProviderByHour = newSketches(NUM_HOURS);
+    final QuantileSketch[] zoneLOS = newSketches(NUM_STATIONS);
+    final QuantileSketch[] zoneDoorToProvider = newSketches(NUM_STATIONS);
+
+    private static QuantileSketch[] newSketches(int n) {
+        QuantileSketch[] sketches = new QuantileSketch[n];
+        for (int i = 0; i < n; i++) sketches[i] = new QuantileSketch();
+        return sketches;
+    }
+
+    // at ED disposal; doorToProviderTime is 0 for patients never seen by a provider
+    public void recordDisposal(int esiLevel, double edArrivalTime, double doorToProviderTime, double losTime) {
+        int esi = Math.max(0, Math.min(NUM_ESI - 1, esiLevel));
+        int hour = Utils.getDayTimeFromMins(edArrivalTime);
+        edLOS.add(losTime);
+        edLOSByESI[esi].add(losTime);
+        edLOSByHour[hour].add(losTime);
+        if (doorToProviderTime > 0) {
+            doorToProvider.add(doorToProviderTime);
+            doorToProviderByESI[esi].add(doorToProviderTime);
+            doorToProviderByHour[hour].add(doorToProviderTime);
+        }
+    }
+
+    // when a patient finishes treatment in a zone
+    public void recordZoneDeparture(Simulator.StationName zone, double doorToProviderTime, double zoneLOSTime) {
+        zoneLOS[zone.ordinal()].add(zoneLOSTime);
+        zoneDoorToProvider[zone.ordinal()].add(doorToProviderTime);
+    }
+
+    public void merge(OutcomeSketches other) {
+        edLOS.merge(other.edLOS);
+        doorToProvider.merge(other.doorToProvider);
+        merge(edLOSByESI, other.edLOSByESI);
+        merge(doorToProviderByESI, other.doorToProviderByESI);
+        merge(edLOSByHour, other.edLOSByHour);
+        merge(doorToProviderByHour, other.doorToProviderByHour);
+        merge(zoneLOS, other.zoneLOS);
+        merge(zoneDoorToProvider, other.zoneDoorToProvider);
+    }
+
+    private static void merge(QuantileSketch[] into, QuantileSketch[] from) {
+        for (int i = 0; i < into.length; i++) into[i].merge(from[i]);
+    }
+
+    public QuantileSketch getZoneLOS(Simulator.StationName zone) {
+        return zoneLOS[zone.ordinal()];
+    }
+
+    public QuantileSketch getZoneDoorToProvider(Simulator.StationName zone) {
+        return zoneDoorToProvider[zone.ordinal()];
+    }
+
+    public void printReport() {
+        System.out.println("========== PERCENTILES (p50 / p90 / p95, mins) ==========");
+        printRow("ED door-to-provider", doorToProvider);
+        printRow("ED LOS", edLOS);
+        for (int esi = 1; esi < NUM_ESI; esi++) {
+            printRow("ESI " + esi + " door-to-provider", doorToProviderByESI[esi]);
+            printRow("ESI " + esi + " LOS", edLOSByESI[esi]);
+        }
+        for (Simulator.StationName zone : new Simulator.StationName[]{
+                Simulator.StationName.ERU, Simulator.StationName.RED,
+                Simulator.StationName.GREEN, Simulator.StationName.FAST_TRACK}) {
+            printRow(zone + " door-to-provider", getZoneDoorToProvider(zone));
+            printRow(zone + " LOS", getZoneLOS(zone));
+        }
+        for (int hour = 0; hour < NUM_HOURS; hour++) {
+            printRow(String.format("Arrived %02d:00 door-to-provider", hour), doorToProviderByHour[hour]);
+            printRow(String.format("Arrived %02d:00 LOS", hour), edLOSByHour[hour]);
+        }
+        System.out.println("=========================================================");
+    }
+
+    private static void printRow(String label, QuantileSketch sketch) {
+        System.out.printf("%-34s n=%-7d", label, sketch.getCount());
+        for (double q : REPORTED_QUANTILES) {
+            System.out.printf(" %9.1f", sketch.getQuantile(q));
+        }
+        System.out.println();
+    }
+}
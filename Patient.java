@@ -1,21 +1,35 @@
+import java.util.SplittableRandom;
+
 public class Patient {
     static boolean debug = false;
 
+    public static final String WALK_IN = "Walk-in";
+    public static final String AMBULANCE = "Ambulance";
+
     //identifier information
-    public String id;
     public int age;
     public int ESILevel; 
     public String arrivalMode;
     public String acuity;
+    public byte arrivalModeCode; // PatientTable codes, for string-free lookups
+    public byte acuityCode;
 
     //lwbs
     public boolean hasLWBS;
-    public double LWBSProbability;
+    public double LWBSProbability; // model's probability at the last check, before acuity and toughness
+    public double lwbsCheckProbability; // probability the last check actually used
     public double LWBSTime;
     public boolean hasScheduledLWBSCheck = false; // to avoid multiple LWBS checks
+    public Event lwbsEvent = null; // pending decideToLWBS event, cancelled on disposition
+
+    // hazard mode (see LWBSHazard): state of the current draw
+    public boolean lwbsCandidate = false; // pending event is a sampled check, not a segment boundary
+    public double lwbsBound;
+    public int lwbsCeiling;
+    public double lwbsFirstCheckTime;
+    public int lwbsHazardIndex = -1;
 
 
-    public static double lwbsToughnessFactor = 0.1;
 
     //death
     public boolean died;
@@ -39,7 +53,7 @@ public class Patient {
 
 
     //patient diagnosis complexity
-    public double complexity = Math.random();
+    public double complexity;
     public int misdiagnosisDelta = 0;
 
     // Station timing
@@ -69,14 +83,30 @@ public class Patient {
 
     public Simulator.StationName currentStationName;
 
+    // location handle, kept by the containers themselves: at most one of these is set
+    WaitingArea waitingArea = null; // bed queue, with the intrusive links of its bucket
+    Patient waitingPrev = null;
+    Patient waitingNext = null;
+    int waitingBucket;
+    StaffQueue staffQueue = null;   // holds a bed, waiting for staff
+    Patient staffPrev = null;
+    Patient staffNext = null;
+
     public Patient(int regNo) {
+        this(regNo, PatientMix.defaultMix(), new SplittableRandom());
+    }
+
+    // random is the simulation's PATIENT_MIX stream; always five draws per patient
+    public Patient(int regNo, PatientMix mix, SplittableRandom random) {
         // Initialize all fields
-        this.id = "P_" + regNo; 
         this.regNo = regNo;
-        this.age = inferAge();
-        this.arrivalMode = inferArrivalMode();
-        this.ESILevel = inferESILevel();
+        this.age = mix.sampleAge(random);
+        this.arrivalMode = mix.sampleArrivalMode(random);
+        this.ESILevel = mix.sampleESILevel(random);
+        this.complexity = random.nextDouble();
         this.acuity = inferAcuity(this.ESILevel);
+        this.arrivalModeCode = PatientTable.encodeArrivalMode(this.arrivalMode);
+        this.acuityCode = PatientTable.encodeAcuity(this.acuity);
         this.hasLWBS = false;
         this.LWBSProbability = 0.0;
         this.LWBSTime = 0.0;
@@ -91,32 +121,19 @@ public class Patient {
     }
 
 
-    public void printDebugInfo() {
-        System.out.println(this.id + "-arrivalMode: " + arrivalMode);
-        System.out.println(this.id + "-ESILevel: " + ESILevel);
-        System.out.println(this.id + "-acuity: " + acuity);
-        System.out.println(this.id + "-age: " + age);
-        System.out.println(this.id + "-LWBS prob: " + LWBSProbability);
-        System.out.println(this.id + "-HostStation: " + currentStationName);
-    }
-
-    public String inferArrivalMode(){
-        String patientType;
-        double r = Math.random();
-        if (r < 0.82) patientType = "Walk-in";
-        else patientType = "Ambulance";
-
-        return patientType;
+    // built on demand for debug output only
+    public String getId() {
+        return "P_" + regNo;
     }
 
-    public int inferESILevel() {
-        double r = Math.random();
-
-        if (r < 0.01) return 1;              // 1.0%
-        else if (r < 0.01 + 0.294) return 2;   // +29.4%
-        else if (r < 0.01 + 0.294 + 0.488) return 3; // +48.8%
-        else if (r < 0.01 + 0.294 + 0.488 + 0.173) return 4; // +17.3%
-        else return 5; // 2.2%
+    public void printDebugInfo() {
+        String id = getId();
+        System.out.println(id + "-arrivalMode: " + arrivalMode);
+        System.out.println(id + "-ESILevel: " + ESILevel);
+        System.out.println(id + "-acuity: " + acuity);
+        System.out.println(id + "-age: " + age);
+        System.out.println(id + "-LWBS prob: " + LWBSProbability);
+        System.out.println(id + "-HostStation: " + currentStationName);
     }
 
 
@@ -144,57 +161,65 @@ public class Patient {
         );
     }
 
-    public int inferAge() {
-        double r = Math.random();
+    // LWBS model output for a check at the given time, before acuity and toughness
+    public double getLWBSBaseProbability(Simulator simulator, int hostQueueSize, double time) {
+        return LWBSModel.getInstance().predictLWBSProbability(
+                this, hostQueueSize, simulator.getArrivalRateByTime(time),
+                time - this.sortingAT, Utils.getDayTimeFromMins(time)
+        );
+    }
+
+    // probability that a single LWBS check at the given time succeeds
+    public double getLWBSCheckProbability(Simulator simulator, int hostQueueSize, double time) {
+        return toCheckProbability(simulator, getLWBSBaseProbability(simulator, hostQueueSize, time));
+    }
 
-        // Based on typical ED age distribution
-        if (r < 0.20) return 18 + (int)(Math.random() * 27); // 18-44 (20%)
-        else if (r < 0.40) return 45 + (int)(Math.random() * 20); // 45-64 (20%)
-        else if (r < 0.70) return 65 + (int)(Math.random() * 15); // 65-79 (30%)
-        else if (r < 0.90) return 80 + (int)(Math.random() * 10); // 80-89 (20%)
-        else return 0 + (int)(Math.random() * 18); // 0-17 (10%)
+    private double toCheckProbability(Simulator simulator, double baseProbability) {
+        return baseProbability * getLWBSAcuityModifier() * simulator.config.lwbsToughnessFactor;
     }
 
+    private double getLWBSAcuityModifier() {
+        switch (this.ESILevel) {
+            case 1: return 0.01;
+            case 2: return 0.10;
+            case 3: return 0.60;
+            default: return 1.0;
+        }
+    }
 
     public void processLWBSDecision(Simulator simulator) {
         double currentTime = simulator.currentTime;
+        this.lwbsEvent = null; // the pending check is the one being processed
 
         // Exit immediately if the patient has already been disposed
         if (this.isCountedDisposed) {
             return;
         }
 
-        ServiceStation station = simulator.getStationByName(currentStationName);
-        double doorToProviderTime = currentTime - this.sortingAT;
-        int currentHour = Utils.getDayTimeFromMins(currentTime);
-        double arrivalRate = Simulator.getArrivalRateByTime(currentHour);
-
-        // 1. Calculate the base probability
-        this.computeLWBSProbability(simulator.getTotalPatientsInWaitingAreas(), arrivalRate, doorToProviderTime, currentHour);
-        double baseProbability = this.LWBSProbability;
-
-        // 2. Determine an acuity modifier
-        double acuityModifier = 1.0;
-        switch (this.ESILevel) {
-            case 1: acuityModifier = 0.01; break;
-            case 2: acuityModifier = 0.10; break;
-            case 3: acuityModifier = 0.60; break;
+        LWBSHazard hazard = simulator.lwbsHazard;
+        if (hazard != null && !this.lwbsCandidate) {
+            // segment boundary: this instant is the first check of the next segment
+            hazard.schedule(this, currentTime);
+            return;
         }
 
-        double finalProbability = baseProbability * acuityModifier * lwbsToughnessFactor;
+        ServiceStation station = simulator.getStationByName(currentStationName);
+
+        // same formula as the hazard bound (getLWBSCheckProbability), so thinning stays exact
+        this.LWBSProbability = getLWBSBaseProbability(simulator, simulator.getTotalPatientsInWaitingAreas(), currentTime);
+        this.lwbsCheckProbability = toCheckProbability(simulator, this.LWBSProbability);
+        double finalProbability = this.lwbsCheckProbability;
 
-        if (Math.random() < finalProbability) {
+        boolean leaves = (hazard != null)
+                ? hazard.accept(this, finalProbability)
+                : simulator.randomStreams.get(RandomStreams.Stream.LWBS).nextDouble() < finalProbability;
+        if (leaves) {
             this.hasLWBS = true;
             this.LWBSTime = currentTime;
-            station.lwbsPatients.add(this);
-
-            if (station.queue.contains(this)) {
-                station.queue.remove(this);
-            } else if (station instanceof Zone && ((Zone) station).waitingForStaff.contains(this)) {
-                ((Zone) station).waitingForStaff.remove(this);
-            } else if (station instanceof Triage && ((Triage) station).waitingForStaff.contains(this)) {
-                ((Triage) station).waitingForStaff.remove(this);
-            } else if (station instanceof ReassessmentZone && ((ReassessmentZone) station).waitingForStaff.contains(this)){
+            station.recordLWBS(this);
+
+            // ReassessmentZone keeps its own staff list, which the handle does not cover
+            if (!leaveWaitingLine() && station instanceof ReassessmentZone) {
                 ((ReassessmentZone) station).waitingForStaff.remove(this);
             }
 
@@ -212,10 +237,29 @@ public class Patient {
     public boolean hasLWBS() {
         return hasLWBS;
     }
+
+    // station whose bed queue or staff queue holds this patient, NONE if not waiting
+    public Simulator.StationName getWaitingStation() {
+        if (waitingArea != null) return waitingArea.getStationName();
+        if (staffQueue != null) return staffQueue.getStationName();
+        return Simulator.StationName.NONE;
+    }
+
+    // unlinks the patient from the line it is waiting in; false if it was not waiting
+    boolean leaveWaitingLine() {
+        if (waitingArea != null) return waitingArea.remove(this);
+        if (staffQueue != null) return staffQueue.remove(this);
+        return false;
+    }
     public void scheduleDecideToLWBS(Simulator simulator) {
         if (!this.hasScheduledLWBSCheck) {
             this.hasScheduledLWBSCheck = true; // prevent multiple scheduling
-            simulator.eventList.add(new Event(simulator.currentTime + simulator.lwbsReevaluationPeriod, Event.EventType.decideToLWBS, this));
+            double nextCheckTime = simulator.currentTime + simulator.lwbsReevaluationPeriod;
+            if (simulator.lwbsHazard != null) {
+                simulator.lwbsHazard.schedule(this, nextCheckTime);
+            } else {
+                this.lwbsEvent = simulator.schedule(nextCheckTime, Event.EventType.decideToLWBS, this);
+            }
         }
     }
 
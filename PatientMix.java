@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Case mix for arriving patients: ESI level, age band and arrival mode, each sampled from
+ * an alias table with one uniform draw (plus one for the age inside its band). A mix can
+ * be loaded from a properties file so another hospital's case mix can be swapped in:
+ *
+ *   esi.weights=0.01,0.294,0.488,0.173,0.035
+ *   age.bands=18-44:0.20,45-64:0.20,65-79:0.30,80-89:0.20,0-17:0.10
+ *   arrivalMode.weights=0.82,0.18
+ */
+public class PatientMix {
+    private final AliasTable esiTable;
+    private final AliasTable ageBandTable;
+    private final int[] ageBandLower;
+    private final int[] ageBandWidth;
+    private final AliasTable arrivalModeTable;
+
+    // esiWeights for ESI 1..5, age bands inclusive, arrival mode weights as {walk-in, ambulance}
+    public PatientMix(double[] esiWeights, int[] ageBandLower, int[] ageBandUpper, double[] ageBandWeights, double[] arrivalModeWeights) {
+        if (esiWeights.length != 5) {
+            throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Expected 5 ESI weights, got " + esiWeights.length);
+        }
+        if (ageBandLower.length != ageBandUpper.length || ageBandLower.length != ageBandWeights.length) {
+            throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Age band bounds and weights differ in length.");
+        }
+        if (arrivalModeWeights.length != 2) {
+            throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Expected 2 arrival mode weights (walk-in, ambulance).");
+        }
+        this.esiTable = new AliasTable(esiWeights);
+        this.ageBandTable = new AliasTable(ageBandWeights);
+        this.ageBandLower = ageBandLower.clone();
+        this.ageBandWidth = new int[ageBandLower.length];
+        for (int i = 0; i < ageBandLower.length; i++) {
+            if (ageBandUpper[i] < ageBandLower[i]) {
+                throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Empty age band " + ageBandLower[i] + "-" + ageBandUpper[i]);
+            }
+            this.ageBandWidth[i] = ageBandUpper[i] - ageBandLower[i] + 1;
+        }
+        this.arrivalModeTable = new AliasTable(arrivalModeWeights);
+    }
+
+    // the case mix previously hard-coded in Patient
+    public static PatientMix defaultMix() {
+        return new PatientMix(
+                new double[]{0.01, 0.294, 0.488, 0.173, 0.035},
+                new int[]{18, 45, 65, 80, 0},
+                new int[]{44, 64, 79, 89, 17},
+                new double[]{0.20, 0.20, 0.30, 0.20, 0.10},
+                new double[]{0.82, 0.18});
+    }
+
+    public static PatientMix load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        double[] esiWeights = parseWeights(required(properties, "esi.weights", file));
+        double[] arrivalModeWeights = parseWeights(required(properties, "arrivalMode.weights", file));
+
+        String[] bands = required(properties, "age.bands", file).split(",");
+        int[] lower = new int[bands.length];
+        int[] upper = new int[bands.length];
+        double[] weights = new double[bands.length];
+        for (int i = 0; i < bands.length; i++) {
+            String band = bands[i].trim();
+            int colon = band.indexOf(':');
+            int dash = band.indexOf('-');
+            if (colon < 0 || dash < 0 || dash > colon) {
+                throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Malformed age band '" + band + "' in " + file);
+            }
+            lower[i] = Integer.parseInt(band.substring(0, dash).trim());
+            upper[i] = Integer.parseInt(band.substring(dash + 1, colon).trim());
+            weights[i] = Double.parseDouble(band.substring(colon + 1).trim());
+        }
+
+        return new PatientMix(esiWeights, lower, upper, weights, arrivalModeWeights);
+    }
+
+    public int sampleESILevel(SplittableRandom random) {
+        return esiTable.sample(random.nextDouble()) + 1;
+    }
+
+    public int sampleAge(SplittableRandom random) {
+        int band = ageBandTable.sample(random.nextDouble());
+        return ageBandLower[band] + (int) (random.nextDouble() * ageBandWidth[band]);
+    }
+
+    public String sampleArrivalMode(SplittableRandom random) {
+        return arrivalModeTable.sample(random.nextDouble()) == 0 ? Patient.WALK_IN : Patient.AMBULANCE;
+    }
+
+    private static String required(Properties properties, String key, Path file) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("[PATIENT-MIX-ERROR] Missing '" + key + "' in " + file);
+        }
+        return value;
+    }
+
+    private static double[] parseWeights(String value) {
+        String[] parts = value.split(",");
+        double[] weights = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            weights[i] = Double.parseDouble(parts[i].trim());
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * Columnar patient store indexed by regNo: attributes as bytes, a per-station timestamp
+ * matrix and the disposition outcome, all in primitive arrays. Statistics read from here,
+ * so Patient objects can be dropped once a patient leaves the ED (see
+ * RunConfig.retainPatientObjects).
+ */
+public class PatientTable {
+    // timestamp matrix: one row of arrival/processing/departure times per stage
+    public static final int SORT = 0;
+    public static final int REGISTRATION = 1;
+    public static final int TRIAGE = 2;
+    public static final int ZONE = 3;
+    public static final int REASSESSMENT = 4;
+    private static final int NUM_STAGES = 5;
+
+    public static final int ARRIVAL = 0;
+    public static final int PROCESSING = 1;
+    public static final int DEPARTURE = 2;
+    private static final int STRIDE = NUM_STAGES * 3;
+
+    public static final byte WALK_IN = 0;
+    public static final byte AMBULANCE = 1;
+
+    public static final byte ACUITY_HIGH = 0;
+    public static final byte ACUITY_MODERATE = 1;
+    public static final byte ACUITY_LOW = 2;
+    public static final byte ACUITY_UNKNOWN = 3;
+
+    private static final byte LWBS = 1;
+    private static final byte DIED = 2;
+    private static final byte REASSESSED = 4;
+
+    private static final Simulator.StationName[] STATION_NAMES = Simulator.StationName.values();
+
+    private int capacity;
+    private double[] times;
+    private byte[] esiLevel;
+    private byte[] age;
+    private byte[] arrivalMode;
+    private byte[] acuity;
+    private byte[] flags;
+    private byte[] location; // StationName ordinal of the last station entered
+    private double[] doorToProviderTime;
+    private double[] edResponseTime;
+
+    // regNos in order of disposition
+    private int[] disposed;
+    private int numDisposed = 0;
+
+    public PatientTable() {
+        this(1024);
+    }
+
+    public PatientTable(int initialCapacity) {
+        capacity = Math.max(16, initialCapacity);
+        times = new double[capacity * STRIDE];
+        esiLevel = new byte[capacity];
+        age = new byte[capacity];
+        arrivalMode = new byte[capacity];
+        acuity = new byte[capacity];
+        flags = new byte[capacity];
+        location = new byte[capacity];
+        doorToProviderTime = new double[capacity];
+        edResponseTime = new double[capacity];
+        disposed = new int[capacity];
+    }
+
+    public static int stageOf(Simulator.StationName stationName) {
+        return switch (stationName) {
+            case REGISTRATION -> REGISTRATION;
+            case TRIAGE -> TRIAGE;
+            case REASSESSMENT -> REASSESSMENT;
+            case ZONE, ERU, FAST_TRACK, RED, GREEN, BLUE -> ZONE;
+            default -> SORT;
+        };
+    }
+
+    public static byte encodeArrivalMode(String arrivalMode) {
+        return Patient.AMBULANCE.equals(arrivalMode) ? AMBULANCE : WALK_IN;
+    }
+
+    public static byte encodeAcuity(String acuity) {
+        return switch (acuity) {
+            case "High" -> ACUITY_HIGH;
+            case "Moderate" -> ACUITY_MODERATE;
+            case "Low" -> ACUITY_LOW;
+            default -> ACUITY_UNKNOWN;
+        };
+    }
+
+    public void add(Patient patient) {
+        int row = patient.regNo;
+        ensureCapacity(row + 1);
+        esiLevel[row] = (byte) patient.ESILevel;
+        age[row] = (byte) patient.age;
+        arrivalMode[row] = patient.arrivalModeCode;
+        acuity[row] = patient.acuityCode;
+        location[row] = (byte) patient.currentStationName.ordinal();
+    }
+
+    public void setLocation(int regNo, Simulator.StationName stationName) {
+        location[regNo] = (byte) stationName.ordinal();
+    }
+
+    public void setTime(int regNo, int stage, int kind, double time) {
+        ensureCapacity(regNo + 1);
+        times[regNo * STRIDE + stage * 3 + kind] = time;
+    }
+
+    public double getTime(int regNo, int stage, int kind) {
+        return times[regNo * STRIDE + stage * 3 + kind];
+    }
+
+    // snapshot of the ED-level outcome; the Patient object is not needed afterwards
+    public void recordDisposal(Patient patient) {
+        int row = patient.regNo;
+        ensureCapacity(row + 1);
+        byte f = 0;
+        if (patient.hasLWBS) f |= LWBS;
+        if (patient.died) f |= DIED;
+        if (patient.reassessed) f |= REASSESSED;
+        flags[row] = f;
+        doorToProviderTime[row] = patient.getDoorToProviderTime();
+        edResponseTime[row] = patient.getEDResponseTime();
+
+        if (numDisposed == disposed.length) {
+            disposed = Arrays.copyOf(disposed, disposed.length * 2);
+        }
+        disposed[numDisposed++] = row;
+    }
+
+    public void recordDeath(int regNo) {
+        flags[regNo] |= DIED;
+    }
+
+    public int getNumDisposed() {
+        return numDisposed;
+    }
+
+    // regNo of the i-th disposed patient
+    public int getDisposed(int i) {
+        return disposed[i];
+    }
+
+    public int getESILevel(int regNo) {
+        return esiLevel[regNo];
+    }
+
+    public int getAge(int regNo) {
+        return age[regNo];
+    }
+
+    public byte getArrivalMode(int regNo) {
+        return arrivalMode[regNo];
+    }
+
+    public byte getAcuity(int regNo) {
+        return acuity[regNo];
+    }
+
+    public boolean hasLWBS(int regNo) {
+        return (flags[regNo] & LWBS) != 0;
+    }
+
+    public boolean died(int regNo) {
+        return (flags[regNo] & DIED) != 0;
+    }
+
+    public boolean wasReassessed(int regNo) {
+        return (flags[regNo] & REASSESSED) != 0;
+    }
+
+    public Simulator.StationName getLocation(int regNo) {
+        return STATION_NAMES[location[regNo]];
+    }
+
+    public double getDoorToProviderTime(int regNo) {
+        return doorToProviderTime[regNo];
+    }
+
+    public double getEDResponseTime(int regNo) {
+        return edResponseTime[regNo];
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= capacity) return;
+        int newCapacity = Math.max(rows, capacity * 2);
+        times = Arrays.copyOf(times, newCapacity * STRIDE);
+        esiLevel = Arrays.copyOf(esiLevel, newCapacity);
+        age = Arrays.copyOf(age, newCapacity);
+        arrivalMode = Arrays.copyOf(arrivalMode, newCapacity);
+        acuity = Arrays.copyOf(acuity, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        location = Arrays.copyOf(location, newCapacity);
+        doorToProviderTime = Arrays.copyOf(doorToProviderTime, newCapacity);
+        edResponseTime = Arrays.copyOf(edResponseTime, newCapacity);
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Fixed-memory quantile sketch over non-negative values (minutes). Values are counted in
+ * logarithmic buckets whose width is a fixed fraction of their value, so any quantile is
+ * returned within relativeAccuracy of a true sample value. Values below minValue share a
+ * zero bucket and values above maxValue are clamped. Sketches with the same parameters
+ * merge by adding counts, so replications can be combined without keeping samples.
+ */
+public class QuantileSketch {
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    static final double DEFAULT_MIN_VALUE = 0.1;       // minutes
+    static final double DEFAULT_MAX_VALUE = 1_000_000; // minutes, about two years
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double logGamma;
+    private final int offset; // bucket index of minValue
+    private final int numBuckets;
+    private long[] counts; // allocated on the first value
+    private long zeroCount = 0;
+    private long count = 0;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MIN_VALUE, DEFAULT_MAX_VALUE);
+    }
+
+    public QuantileSketch(double relativeAccuracy, double minValue, double maxValue) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("[SKETCH-ERROR] Relative accuracy must be in (0, 1).");
+        }
+        if (minValue <= 0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("[SKETCH-ERROR] Need 0 < minValue < maxValue.");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.offset = rawIndex(minValue);
+        this.numBuckets = rawIndex(maxValue) - offset + 1;
+    }
+
+    private int rawIndex(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    public void add(double value) {
+        count++;
+        if (!(value >= minValue)) { // also catches NaN
+            zeroCount++;
+            return;
+        }
+        if (counts == null) counts = new long[numBuckets];
+        int index = rawIndex(Math.min(value, maxValue)) - offset;
+        counts[Math.max(0, Math.min(numBuckets - 1, index))]++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.minValue != minValue || other.maxValue != maxValue) {
+            throw new IllegalArgumentException("[SKETCH-ERROR] Cannot merge sketches with different parameters.");
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        if (other.counts == null) return;
+        if (counts == null) counts = new long[numBuckets];
+        for (int i = 0; i < numBuckets; i++) counts[i] += other.counts[i];
+    }
+
+    // q in [0, 1]; NaN when empty
+    public double getQuantile(double q) {
+        if (count == 0) return Double.NaN;
+        long rank = (long) Math.floor(Math.max(0.0, Math.min(1.0, q)) * (count - 1));
+        if (rank < zeroCount) return 0.0;
+        long seen = zeroCount;
+        for (int i = 0; i < numBuckets; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // midpoint of the bucket in relative terms
+                return 2 * Math.exp((i + offset) * logGamma) / (1 + Math.exp(logGamma));
+            }
+        }
+        return maxValue;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
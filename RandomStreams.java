@@ -0,0 +1,59 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Per-simulation random number service. All streams are split from one master seed in a
+ * fixed order, so a run is reproducible from its seed and a change in how many draws one
+ * stream makes (e.g. routing) does not shift the draws seen by another (e.g. service times).
+ */
+public class RandomStreams {
+
+    public enum Stream {
+        ARRIVALS,
+        PATIENT_MIX,
+        ROUTING,
+        LWBS,
+        DEATH,
+        MISDIAGNOSIS
+    }
+
+    private final long masterSeed;
+    private final Map<Stream, SplittableRandom> streams = new EnumMap<>(Stream.class);
+    private final Map<Simulator.StationName, VariateStream> serviceStreams = new EnumMap<>(Simulator.StationName.class);
+    private final VariateStream arrivals;
+
+    public RandomStreams(long masterSeed) {
+        this(masterSeed, false);
+    }
+
+    public RandomStreams(long masterSeed, boolean backgroundPrefill) {
+        this.masterSeed = masterSeed;
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        for (Stream stream : Stream.values()) {
+            streams.put(stream, master.split());
+        }
+        for (Simulator.StationName stationName : Simulator.StationName.values()) {
+            serviceStreams.put(stationName, new VariateStream(master.split(), backgroundPrefill));
+        }
+        arrivals = new VariateStream(streams.get(Stream.ARRIVALS).split(), backgroundPrefill);
+    }
+
+    public SplittableRandom get(Stream stream) {
+        return streams.get(stream);
+    }
+
+    // buffered exponential inter-arrival times
+    public VariateStream arrivals() {
+        return arrivals;
+    }
+
+    // service times, one independent stream per station
+    public VariateStream service(Simulator.StationName stationName) {
+        return serviceStreams.get(stationName);
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+}
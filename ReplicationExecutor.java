@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Runs independent replications on a work-stealing pool. Every replication builds its own
+ * Simulator from an immutable RunConfig, so threads share nothing but read-only tables
+ * (the LWBS model, the patient mix). Results are returned in submission order whatever
+ * order the runs finish in, so aggregates are reproducible for a given set of seeds.
+ */
+public class ReplicationExecutor implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    public ReplicationExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReplicationExecutor(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    // summarize runs on the worker, so only its result outlives the Simulator
+    public <R> List<R> run(List<RunConfig> configs, int simDays, Function<Simulator, R> summarize) {
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(configs.size());
+        for (RunConfig config : configs) {
+            tasks.add(pool.submit(() -> {
+                Simulator sim = new Simulator(config);
+                sim.runForDays(simDays);
+                return summarize.apply(sim);
+            }));
+        }
+        List<R> results = new ArrayList<>(configs.size());
+        for (ForkJoinTask<R> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    // independent replication seeds derived from one master seed
+    public static long[] seeds(long masterSeed, int count) {
+        SplittableRandom random = new SplittableRandom(masterSeed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
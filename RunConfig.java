@@ -0,0 +1,239 @@
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Parameters of one simulation run: seed, misdiagnosis and reassessment policy, arrival-rate
+ * profile, LWBS model and toughness, queue policy, warm-up rule, the ED Scenario (layout,
+ * staffing and demand) and engine switches such as the event-list backend.
+ * Immutable, so replications running on different threads can share one; the with*
+ * methods return modified copies.
+ */
+public final class RunConfig {
+    private static final PatientMix DEFAULT_PATIENT_MIX = PatientMix.defaultMix();
+
+    final long seed;
+    final boolean misdiagnosis;
+    final double stdDevMultiplier;   // scales the triage misdiagnosis spread
+    final boolean reassessmentEnabled;
+    final int reassessmentDelay;     // minutes in a zone queue before reassessment
+    final boolean variableArrivalRate; // time-of-day arrival profile, else a flat 10/h
+    final double lwbsToughnessFactor;
+    final Scenario scenario;
+    final PatientMix patientMix;
+    final WaitingArea.PrioritizationPolicy mixedZonePolicy; // green and fast track; ACCUMULATING_PRIORITY for time-dependent priority
+    private final double[] accumulationRates; // ACCUMULATING_PRIORITY rate per minute, by bucket (untriaged, ESI 1..5)
+    final Simulator.LWBSMode lwbsMode; // HAZARD samples each patient's abandonment check directly
+    final int lwbsCensusHeadroom;      // HAZARD: patients above the current census covered by each draw
+    final boolean detectWarmUp;        // end warm-up by MSER on daily ED LOS instead of after warmUpDays
+    final int warmUpMinDays;           // days of batches before MSER is trusted
+    final int warmUpStableDays;        // consecutive days the MSER truncation must hold
+    final ServiceTimeDistribution serviceTimeDistribution;
+    final EventList.Backend eventListBackend; // BINARY_HEAP for comparison runs
+    final boolean batchSimultaneousEvents;    // process all events of one instant as a batch
+    final boolean prefillVariatesInBackground; // generate variate blocks on a worker thread
+    final boolean retainPatientObjects; // keep Patient objects in the per-station lists (debugging only)
+
+    private RunConfig(Values v) {
+        this.seed = v.seed;
+        this.misdiagnosis = v.misdiagnosis;
+        this.stdDevMultiplier = v.stdDevMultiplier;
+        this.reassessmentEnabled = v.reassessmentEnabled;
+        this.reassessmentDelay = v.reassessmentDelay;
+        this.variableArrivalRate = v.variableArrivalRate;
+        this.lwbsToughnessFactor = v.lwbsToughnessFactor;
+        this.scenario = v.scenario;
+        this.patientMix = v.patientMix;
+        this.mixedZonePolicy = v.mixedZonePolicy;
+        this.accumulationRates = v.accumulationRates.clone();
+        this.lwbsMode = v.lwbsMode;
+        this.lwbsCensusHeadroom = v.lwbsCensusHeadroom;
+        this.detectWarmUp = v.detectWarmUp;
+        this.warmUpMinDays = v.warmUpMinDays;
+        this.warmUpStableDays = v.warmUpStableDays;
+        this.serviceTimeDistribution = v.serviceTimeDistribution;
+        this.eventListBackend = v.eventListBackend;
+        this.batchSimultaneousEvents = v.batchSimultaneousEvents;
+        this.prefillVariatesInBackground = v.prefillVariatesInBackground;
+        this.retainPatientObjects = v.retainPatientObjects;
+    }
+
+    // mutable copy used only while building a modified RunConfig
+    private static class Values {
+        long seed;
+        boolean misdiagnosis;
+        double stdDevMultiplier;
+        boolean reassessmentEnabled;
+        int reassessmentDelay;
+        boolean variableArrivalRate;
+        double lwbsToughnessFactor;
+        Scenario scenario;
+        PatientMix patientMix;
+        WaitingArea.PrioritizationPolicy mixedZonePolicy;
+        double[] accumulationRates;
+        Simulator.LWBSMode lwbsMode;
+        int lwbsCensusHeadroom;
+        boolean detectWarmUp;
+        int warmUpMinDays;
+        int warmUpStableDays;
+        ServiceTimeDistribution serviceTimeDistribution;
+        EventList.Backend eventListBackend;
+        boolean batchSimultaneousEvents;
+        boolean prefillVariatesInBackground;
+        boolean retainPatientObjects;
+
+        Values() {
+        }
+
+        Values(RunConfig c) {
+            seed = c.seed;
+            misdiagnosis = c.misdiagnosis;
+            stdDevMultiplier = c.stdDevMultiplier;
+            reassessmentEnabled = c.reassessmentEnabled;
+            reassessmentDelay = c.reassessmentDelay;
+            variableArrivalRate = c.variableArrivalRate;
+            lwbsToughnessFactor = c.lwbsToughnessFactor;
+            scenario = c.scenario;
+            patientMix = c.patientMix;
+            mixedZonePolicy = c.mixedZonePolicy;
+            accumulationRates = c.accumulationRates;
+            lwbsMode = c.lwbsMode;
+            lwbsCensusHeadroom = c.lwbsCensusHeadroom;
+            detectWarmUp = c.detectWarmUp;
+            warmUpMinDays = c.warmUpMinDays;
+            warmUpStableDays = c.warmUpStableDays;
+            serviceTimeDistribution = c.serviceTimeDistribution;
+            eventListBackend = c.eventListBackend;
+            batchSimultaneousEvents = c.batchSimultaneousEvents;
+            prefillVariatesInBackground = c.prefillVariatesInBackground;
+            retainPatientObjects = c.retainPatientObjects;
+        }
+    }
+
+    private RunConfig with(Consumer<Values> change) {
+        Values v = new Values(this);
+        change.accept(v);
+        return new RunConfig(v);
+    }
+
+    // the values previously held in BatchRunner, Simulator, Patient, WaitingArea, WarmUpDetector
+    // and LWBSHazard statics; fresh random seed
+    public static RunConfig defaults() {
+        Values v = new Values();
+        v.seed = new SplittableRandom().nextLong();
+        v.misdiagnosis = true;
+        v.stdDevMultiplier = 0.5;
+        v.reassessmentEnabled = true;
+        v.reassessmentDelay = 120;
+        v.variableArrivalRate = true;
+        v.lwbsToughnessFactor = 0.1;
+        v.scenario = Scenario.DEFAULT;
+        v.patientMix = DEFAULT_PATIENT_MIX;
+        v.mixedZonePolicy = WaitingArea.PrioritizationPolicy.HIGHER_ACUITY_FIRST;
+        v.accumulationRates = new double[]{1.0, 64.0, 16.0, 4.0, 2.0, 1.0};
+        v.lwbsMode = Simulator.LWBSMode.POLLING;
+        v.lwbsCensusHeadroom = 10;
+        v.detectWarmUp = true;
+        v.warmUpMinDays = 10;
+        v.warmUpStableDays = 5;
+        v.serviceTimeDistribution = ServiceTimeDistribution.TRUNCATED_NORMAL;
+        v.eventListBackend = EventList.Backend.CALENDAR_QUEUE;
+        v.batchSimultaneousEvents = false;
+        v.prefillVariatesInBackground = false;
+        v.retainPatientObjects = false;
+        return new RunConfig(v);
+    }
+
+    public RunConfig withSeed(long seed) {
+        return with(v -> v.seed = seed);
+    }
+
+    public RunConfig withMisdiagnosis(boolean misdiagnosis, double stdDevMultiplier) {
+        return with(v -> {
+            v.misdiagnosis = misdiagnosis;
+            v.stdDevMultiplier = stdDevMultiplier;
+        });
+    }
+
+    public RunConfig withReassessment(boolean reassessmentEnabled, int reassessmentDelay) {
+        return with(v -> {
+            v.reassessmentEnabled = reassessmentEnabled;
+            v.reassessmentDelay = reassessmentDelay;
+        });
+    }
+
+    public RunConfig withVariableArrivalRate(boolean variableArrivalRate) {
+        return with(v -> v.variableArrivalRate = variableArrivalRate);
+    }
+
+    public RunConfig withLWBSToughnessFactor(double lwbsToughnessFactor) {
+        return with(v -> v.lwbsToughnessFactor = lwbsToughnessFactor);
+    }
+
+    public RunConfig withScenario(Scenario scenario) {
+        return with(v -> v.scenario = scenario);
+    }
+
+    public RunConfig withPatientMix(PatientMix patientMix) {
+        return with(v -> v.patientMix = patientMix);
+    }
+
+    public RunConfig withMixedZonePolicy(WaitingArea.PrioritizationPolicy mixedZonePolicy) {
+        return with(v -> v.mixedZonePolicy = mixedZonePolicy);
+    }
+
+    // one rate per bucket: untriaged, then ESI 1..5
+    public RunConfig withAccumulationRates(double... accumulationRates) {
+        if (accumulationRates.length != this.accumulationRates.length) {
+            throw new IllegalArgumentException("[RUN-CONFIG-ERROR] Expected " + this.accumulationRates.length + " accumulation rates, got " + accumulationRates.length);
+        }
+        double[] rates = accumulationRates.clone();
+        return with(v -> v.accumulationRates = rates);
+    }
+
+    public RunConfig withLWBSMode(Simulator.LWBSMode lwbsMode) {
+        return with(v -> v.lwbsMode = lwbsMode);
+    }
+
+    public RunConfig withLWBSCensusHeadroom(int lwbsCensusHeadroom) {
+        return with(v -> v.lwbsCensusHeadroom = lwbsCensusHeadroom);
+    }
+
+    public RunConfig withWarmUpDetection(boolean detectWarmUp, int warmUpMinDays, int warmUpStableDays) {
+        return with(v -> {
+            v.detectWarmUp = detectWarmUp;
+            v.warmUpMinDays = warmUpMinDays;
+            v.warmUpStableDays = warmUpStableDays;
+        });
+    }
+
+    public RunConfig withServiceTimeDistribution(ServiceTimeDistribution serviceTimeDistribution) {
+        return with(v -> v.serviceTimeDistribution = serviceTimeDistribution);
+    }
+
+    public RunConfig withEventListBackend(EventList.Backend eventListBackend) {
+        return with(v -> v.eventListBackend = eventListBackend);
+    }
+
+    public RunConfig withBatchSimultaneousEvents(boolean batchSimultaneousEvents) {
+        return with(v -> v.batchSimultaneousEvents = batchSimultaneousEvents);
+    }
+
+    public RunConfig withPrefillVariatesInBackground(boolean prefillVariatesInBackground) {
+        return with(v -> v.prefillVariatesInBackground = prefillVariatesInBackground);
+    }
+
+    public RunConfig withRetainPatientObjects(boolean retainPatientObjects) {
+        return with(v -> v.retainPatientObjects = retainPatientObjects);
+    }
+
+    public double[] getAccumulationRates() {
+        return accumulationRates.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RunConfig[seed=%d, misdiagnosis=%b x%.1f, reassessment=%b @%d, variableArrivals=%b, lwbsToughness=%.2f, lwbsMode=%s, mixedZonePolicy=%s, scenario=%s]",
+                seed, misdiagnosis, stdDevMultiplier, reassessmentEnabled, reassessmentDelay, variableArrivalRate, lwbsToughnessFactor,
+                lwbsMode, mixedZonePolicy, scenario);
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Stop conditions for a simulation run. Every condition is checked in O(1) before each
+ * event; the precision condition is only re-evaluated when a batch of observations closes.
+ */
+public class RunController {
+
+    public enum StopReason {
+        TIME_LIMIT,         // next event is at or beyond the requested sim time
+        PATIENT_LIMIT,      // requested number of patients disposed
+        QUIESCENCE,         // nothing left to simulate (only the staffing clock is pending)
+        PRECISION_REACHED   // confidence half-width of the target statistic is small enough
+    }
+
+    private double endTime = Double.POSITIVE_INFINITY;
+    private double arrivalsCloseTime = Double.POSITIVE_INFINITY;
+    private long maxDisposedPatients = Long.MAX_VALUE;
+
+    // precision target: batch means over consecutive disposals
+    private Statistics.Property precisionProperty;
+    private double targetHalfWidth;
+    private int batchSize = 1000;
+    private int minBatches = 30;
+    private int numBatches = 0;
+    private double batchSum = 0.0;
+    private int batchCount = 0;
+    private double batchMeansSum = 0.0;
+    private double batchMeansSumSq = 0.0;
+    private double halfWidth = Double.POSITIVE_INFINITY;
+    private boolean precisionReached = false;
+
+    public RunController untilTime(double endTime) {
+        this.endTime = endTime;
+        return this;
+    }
+
+    public RunController untilDays(double days) {
+        return untilTime(days * 24 * 60);
+    }
+
+    public RunController afterDisposedPatients(long maxDisposedPatients) {
+        this.maxDisposedPatients = maxDisposedPatients;
+        return this;
+    }
+
+    // stop generating ED arrivals at this time and let the ED empty out (run to quiescence)
+    public RunController closeArrivalsAt(double time) {
+        this.arrivalsCloseTime = time;
+        return this;
+    }
+
+    // ED-level RESPONSE_TIME or DOOR_TO_PROVIDER_TIME, 95% confidence half-width in minutes
+    public RunController untilPrecision(Statistics.Property property, double targetHalfWidth) {
+        if (property != Statistics.Property.RESPONSE_TIME && property != Statistics.Property.DOOR_TO_PROVIDER_TIME) {
+            throw new IllegalArgumentException("[RUN-CONTROLLER-ERROR] Unsupported precision statistic: " + property);
+        }
+        this.precisionProperty = property;
+        this.targetHalfWidth = targetHalfWidth;
+        return this;
+    }
+
+    public RunController withBatches(int batchSize, int minBatches) {
+        this.batchSize = batchSize;
+        this.minBatches = minBatches;
+        return this;
+    }
+
+    public boolean acceptsArrivalAt(double time) {
+        return time < arrivalsCloseTime;
+    }
+
+    // nextEvent is the earliest live event, or null if the calendar is empty
+    public StopReason check(Simulator simulator, Event nextEvent, int liveEvents) {
+        if (nextEvent == null) return StopReason.QUIESCENCE;
+        if (nextEvent.eventTime >= endTime) return StopReason.TIME_LIMIT;
+        if (simulator.getNumDisposedPatients() >= maxDisposedPatients) return StopReason.PATIENT_LIMIT;
+        if (precisionReached) return StopReason.PRECISION_REACHED;
+        if (liveEvents == 1 && nextEvent.type == Event.EventType.shiftChange) return StopReason.QUIESCENCE;
+        return null;
+    }
+
+    public void recordDisposal(Patient patient) {
+        if (precisionProperty == null) return;
+
+        double value;
+        if (precisionProperty == Statistics.Property.DOOR_TO_PROVIDER_TIME) {
+            value = patient.getDoorToProviderTime();
+            if (value <= 0) return; // same exclusion as Statistics: never seen by a provider
+        } else {
+            value = patient.getEDResponseTime();
+        }
+
+        batchSum += value;
+        if (++batchCount < batchSize) return;
+
+        double batchMean = batchSum / batchCount;
+        batchSum = 0.0;
+        batchCount = 0;
+        numBatches++;
+        batchMeansSum += batchMean;
+        batchMeansSumSq += batchMean * batchMean;
+
+        if (numBatches >= minBatches) {
+            double mean = batchMeansSum / numBatches;
+            double variance = Math.max(0.0, (batchMeansSumSq - numBatches * mean * mean) / (numBatches - 1));
+            halfWidth = tQuantile975(numBatches - 1) * Math.sqrt(variance / numBatches);
+            precisionReached = halfWidth <= targetHalfWidth;
+        }
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public int getNumBatches() {
+        return numBatches;
+    }
+
+    // Student-t 97.5% quantile via the Cornish-Fisher expansion around z = 1.96
+    private static double tQuantile975(int df) {
+        double z = 1.959964;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        return z + (z3 + z) / (4.0 * df) + (5 * z5 + 16 * z3 + 3 * z) / (96.0 * df * df);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Streaming count, mean, variance, min and max (Welford's update). Each observation is
+ * folded in as it happens, so reading a statistic is O(1) and no samples are kept.
+ * Accumulators from separate runs can be merged (Chan et al.).
+ */
+public class RunningStatistic {
+    private long count = 0;
+    private double mean = 0.0;
+    private double m2 = 0.0; // sum of squared deviations from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    public void merge(RunningStatistic other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // NaN when nothing has been observed
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    // sample variance (n - 1)
+    public double getVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    // half-width of the normal-approximation confidence interval for the mean
+    public double getHalfWidth(double z) {
+        return count < 2 ? 0.0 : z * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,304 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * ED layout and demand for a run: hourly arrival rates, beds per zone, service-time
+ * parameters per station, the staffing roster, hourly triage misdiagnosis rates and the
+ * ESI 3/4 routing split. Parsed once into arrays indexed by hour or StationName ordinal, so
+ * the simulation only does array reads. Immutable (the roster too), so one scenario can be
+ * shared by parallel runs.
+ *
+ * A scenario file is a properties file; keys left out keep the default value
+ * (see default-scenario.properties):
+ *
+ *   arrivals.perHour=5,4.5,4,...      24 values, patients per hour from midnight
+ *   beds.RED=34                        TRIAGE and the four zones
+ *   service.GREEN=38.67,24.79          mean, standard deviation (minutes)
+ *   shifts.startHours=0,7,15
+ *   staff.RED=3,4,5                    one count per shift; TRIAGE and the four zones
+ *   misdiagnosis.perHour=0.05,...      24 base triage misdiagnosis rates
+ *   routing.esi3.redShare=0.33         also routing.esi4.greenShare
+ */
+public final class Scenario {
+    private static final int HOURS = 24;
+    private static final Simulator.StationName[] STATION_NAMES = Simulator.StationName.values();
+    private static final Set<Simulator.StationName> BED_STATIONS = EnumSet.of(Simulator.StationName.TRIAGE,
+            Simulator.StationName.ERU, Simulator.StationName.RED, Simulator.StationName.GREEN, Simulator.StationName.FAST_TRACK);
+    private static final Set<Simulator.StationName> SERVICE_STATIONS = EnumSet.of(Simulator.StationName.SORT, Simulator.StationName.REGISTRATION,
+            Simulator.StationName.TRIAGE, Simulator.StationName.REASSESSMENT,
+            Simulator.StationName.ERU, Simulator.StationName.RED, Simulator.StationName.GREEN, Simulator.StationName.FAST_TRACK);
+    private static final Set<Simulator.StationName> STAFF_STATIONS = BED_STATIONS;
+
+    static final Scenario DEFAULT = defaultScenario();
+
+    private final String source; // file it was loaded from, or "default"
+    private final double[] arrivalRate;  // patients per minute, by hour of day
+    private final double flatArrivalRate; // patients per minute when the hourly profile is off
+    private final int[] beds;             // by station ordinal
+    private final double[] serviceMean;
+    private final double[] serviceStdDev;
+    private final StaffingRoster roster;
+    private final double[] misdiagnosisRate; // by hour of day
+    private final double esi3RedShare;   // ESI 3 patients routed to RED instead of GREEN
+    private final double esi4GreenShare; // ESI 4 patients routed to GREEN instead of FAST_TRACK
+
+    private Scenario(String source, double[] arrivalsPerHour, double flatArrivalsPerHour, int[] beds, double[] serviceMean, double[] serviceStdDev,
+                     StaffingRoster roster, double[] misdiagnosisRate, double esi3RedShare, double esi4GreenShare) {
+        this.source = source;
+        this.arrivalRate = new double[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            this.arrivalRate[hour] = arrivalsPerHour[hour] / 60.0;
+        }
+        this.flatArrivalRate = flatArrivalsPerHour / 60.0;
+        this.beds = beds.clone();
+        this.serviceMean = serviceMean.clone();
+        this.serviceStdDev = serviceStdDev.clone();
+        this.roster = roster;
+        this.misdiagnosisRate = misdiagnosisRate.clone();
+        this.esi3RedShare = esi3RedShare;
+        this.esi4GreenShare = esi4GreenShare;
+    }
+
+    // the values previously compiled into Simulator, Zone, StaffingRoster and Triage
+    private static Scenario defaultScenario() {
+        Tables d = new Tables();
+        return d.build("default", StaffingRoster.defaultRoster());
+    }
+
+    public static Scenario load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!isKnownKey(key)) {
+                throw new IllegalArgumentException("[SCENARIO-ERROR] Unknown key '" + key + "' in " + file);
+            }
+        }
+
+        Tables d = new Tables();
+        String value;
+        if ((value = properties.getProperty("arrivals.perHour")) != null) {
+            d.arrivalsPerHour = checkPositive(parseHourly(value, "arrivals.perHour", file), "arrivals.perHour", file);
+        }
+        if ((value = properties.getProperty("arrivals.flatPerHour")) != null) {
+            d.flatArrivalsPerHour = checkPositive(parseNumbers(value, 1, "arrivals.flatPerHour", file), "arrivals.flatPerHour", file)[0];
+        }
+        if ((value = properties.getProperty("misdiagnosis.perHour")) != null) {
+            d.misdiagnosisRate = checkShares(parseHourly(value, "misdiagnosis.perHour", file), "misdiagnosis.perHour", file);
+        }
+        if ((value = properties.getProperty("routing.esi3.redShare")) != null) {
+            d.esi3RedShare = checkShares(parseNumbers(value, 1, "routing.esi3.redShare", file), "routing.esi3.redShare", file)[0];
+        }
+        if ((value = properties.getProperty("routing.esi4.greenShare")) != null) {
+            d.esi4GreenShare = checkShares(parseNumbers(value, 1, "routing.esi4.greenShare", file), "routing.esi4.greenShare", file)[0];
+        }
+
+        for (Simulator.StationName station : BED_STATIONS) {
+            if ((value = properties.getProperty("beds." + station)) != null) {
+                int[] count = parseCounts(value, "beds." + station, file);
+                if (count.length != 1 || count[0] < 1) {
+                    throw new IllegalArgumentException("[SCENARIO-ERROR] beds." + station + " needs one count of at least 1 in " + file);
+                }
+                d.beds[station.ordinal()] = count[0];
+            }
+        }
+        for (Simulator.StationName station : SERVICE_STATIONS) {
+            if ((value = properties.getProperty("service." + station)) != null) {
+                double[] meanAndStdDev = parseNumbers(value, 2, "service." + station, file);
+                if (meanAndStdDev[0] <= 0 || meanAndStdDev[1] < 0) {
+                    throw new IllegalArgumentException("[SCENARIO-ERROR] service." + station + " needs a positive mean and a non-negative stdDev in " + file);
+                }
+                d.serviceMean[station.ordinal()] = meanAndStdDev[0];
+                d.serviceStdDev[station.ordinal()] = meanAndStdDev[1];
+            }
+        }
+
+        // new shift hours replace the default roster, so every default rostered station needs a staff line
+        StaffingRoster defaultRoster = StaffingRoster.defaultRoster();
+        StaffingRoster roster = defaultRoster;
+        if ((value = properties.getProperty("shifts.startHours")) != null) {
+            roster = new StaffingRoster(parseCounts(value, "shifts.startHours", file));
+            for (Simulator.StationName station : defaultRoster.getRosteredStations()) {
+                if (properties.getProperty("staff." + station) == null) {
+                    throw new IllegalArgumentException("[SCENARIO-ERROR] Missing 'staff." + station + "' for the new shifts in " + file);
+                }
+            }
+        }
+        for (Simulator.StationName station : STAFF_STATIONS) {
+            if ((value = properties.getProperty("staff." + station)) != null) {
+                int[] counts = parseCounts(value, "staff." + station, file);
+                for (int count : counts) {
+                    if (count < 0) throw new IllegalArgumentException("[SCENARIO-ERROR] staff." + station + " has a negative count in " + file);
+                }
+                roster = roster.withShiftStaff(station, counts);
+            }
+        }
+
+        return d.build(file.toString(), roster);
+    }
+
+    // only the station keys the simulation reads; anything else would load and silently do nothing
+    private static boolean isKnownKey(String key) {
+        switch (key) {
+            case "arrivals.perHour", "arrivals.flatPerHour", "misdiagnosis.perHour",
+                 "routing.esi3.redShare", "routing.esi4.greenShare", "shifts.startHours":
+                return true;
+        }
+        int dot = key.indexOf('.');
+        if (dot < 0) return false;
+        Simulator.StationName station;
+        try {
+            station = Simulator.StationName.valueOf(key.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return switch (key.substring(0, dot)) {
+            case "beds" -> BED_STATIONS.contains(station);
+            case "service" -> SERVICE_STATIONS.contains(station);
+            case "staff" -> STAFF_STATIONS.contains(station);
+            default -> false;
+        };
+    }
+
+    // mutable working copy of the tables while a scenario is being assembled
+    private static class Tables {
+        double[] arrivalsPerHour = {5, 4.5, 4, 3, 4, 4, 4, 5, 7, 10, 13, 14, 14, 14, 13, 13, 13, 12, 11, 11, 9, 8, 7, 7};
+        double flatArrivalsPerHour = 10;
+        int[] beds = new int[STATION_NAMES.length];
+        double[] serviceMean = new double[STATION_NAMES.length];
+        double[] serviceStdDev = new double[STATION_NAMES.length];
+        double[] misdiagnosisRate = {
+                0.05, 0.05, 0.05, 0.05, 0.05, 0.05,
+                0.1, 0.1, 0.1, 0.1,
+                0.15, 0.15, 0.15, 0.15, 0.15, 0.15, 0.15,
+                0.1, 0.1, 0.1,
+                0.07, 0.07, 0.07, 0.07};
+        double esi3RedShare = 0.33;
+        double esi4GreenShare = 0.2;
+
+        Tables() {
+            beds(Simulator.StationName.TRIAGE, 3);
+            beds(Simulator.StationName.ERU, 14);
+            beds(Simulator.StationName.FAST_TRACK, 19);
+            beds(Simulator.StationName.RED, 34);
+            beds(Simulator.StationName.GREEN, 10);
+            service(Simulator.StationName.SORT, 4, 2);
+            service(Simulator.StationName.REGISTRATION, 3, 2);
+            service(Simulator.StationName.TRIAGE, 5, 2);
+            service(Simulator.StationName.REASSESSMENT, 5, 2);
+            service(Simulator.StationName.ERU, 76, 42);
+            service(Simulator.StationName.RED, 66.7, 29.91);
+            service(Simulator.StationName.GREEN, 38.67, 24.79);
+            service(Simulator.StationName.FAST_TRACK, 21.38, 13.38);
+        }
+
+        void beds(Simulator.StationName station, int count) {
+            beds[station.ordinal()] = count;
+        }
+
+        void service(Simulator.StationName station, double mean, double stdDev) {
+            serviceMean[station.ordinal()] = mean;
+            serviceStdDev[station.ordinal()] = stdDev;
+        }
+
+        Scenario build(String source, StaffingRoster roster) {
+            return new Scenario(source, arrivalsPerHour, flatArrivalsPerHour, beds, serviceMean, serviceStdDev,
+                    roster, misdiagnosisRate, esi3RedShare, esi4GreenShare);
+        }
+    }
+
+    private static double[] parseHourly(String value, String key, Path file) {
+        return parseNumbers(value, HOURS, key, file);
+    }
+
+    private static double[] checkPositive(double[] values, String key, Path file) {
+        for (double v : values) {
+            if (!(v > 0)) throw new IllegalArgumentException("[SCENARIO-ERROR] " + key + " values must be positive in " + file);
+        }
+        return values;
+    }
+
+    private static double[] checkShares(double[] values, String key, Path file) {
+        for (double v : values) {
+            if (!(v >= 0 && v <= 1)) throw new IllegalArgumentException("[SCENARIO-ERROR] " + key + " values must be in [0, 1] in " + file);
+        }
+        return values;
+    }
+
+    private static int[] parseCounts(String value, String key, Path file) {
+        String[] parts = value.split(",");
+        int[] counts = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                counts[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[SCENARIO-ERROR] " + key + " must be whole numbers in " + file);
+        }
+        return counts;
+    }
+
+    private static double[] parseNumbers(String value, int expected, String key, Path file) {
+        String[] parts = value.split(",");
+        if (parts.length != expected) {
+            throw new IllegalArgumentException("[SCENARIO-ERROR] " + key + " needs " + expected + " values, got " + parts.length + " in " + file);
+        }
+        double[] numbers = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                numbers[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("[SCENARIO-ERROR] " + key + " must be numbers in " + file);
+        }
+        return numbers;
+    }
+
+    // patients per minute at the given simulation time
+    public double getArrivalRate(double time) {
+        return arrivalRate[(int) ((time / 60.0) % 24)];
+    }
+
+    public double getFlatArrivalRate() {
+        return flatArrivalRate;
+    }
+
+    public int getBeds(Simulator.StationName station) {
+        return beds[station.ordinal()];
+    }
+
+    public double getServiceMean(Simulator.StationName station) {
+        return serviceMean[station.ordinal()];
+    }
+
+    public double getServiceStdDev(Simulator.StationName station) {
+        return serviceStdDev[station.ordinal()];
+    }
+
+    public StaffingRoster getRoster() {
+        return roster;
+    }
+
+    public double getMisdiagnosisRate(int hour) {
+        return misdiagnosisRate[hour];
+    }
+
+    public double getEsi3RedShare() {
+        return esi3RedShare;
+    }
+
+    public double getEsi4GreenShare() {
+        return esi4GreenShare;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -10,49 +10,92 @@ public abstract class ServiceStation extends Metrics {
     protected double meanServiceTime;
     protected double serviceStdDev;
     protected WaitingArea queue;
-    protected List<Patient> departedPatients;
-    protected TreeSet<Patient> arrivedPatients; // Changed to TreeSet for automatic sorting
-    protected List<Patient> lwbsPatients;
-    protected PriorityQueue<Event> eventList;
+    protected List<Patient> departedPatients; // only filled when RunConfig.retainPatientObjects
+    protected TreeSet<Patient> arrivedPatients; // sorted by arrival; debugging only, null unless RunConfig.retainPatientObjects
+    protected List<Patient> lwbsPatients; // only filled when RunConfig.retainPatientObjects
+    protected Census census;
+    protected PatientTable patientTable;
+    protected final int stage; // this station's row in the patient table's timestamp matrix
+    protected int[] departedRegNos = new int[256];
+    protected int numDeparted = 0;
+    protected final RunningStatistic waitingTimeStatistic = new RunningStatistic(); // folded in at each departure
+    protected final RunningStatistic serviceTimeStatistic = new RunningStatistic();
+    protected final RunningStatistic responseTimeStatistic = new RunningStatistic();
+    protected double lastArrivalTime = Double.NEGATIVE_INFINITY;
+    protected final RunningStatistic interArrivalStatistic = new RunningStatistic(); // gaps between consecutive arrivals
+    protected EventList eventList;
     protected Simulator simulator;
+    protected VariateStream serviceVariates; // this station's service-time stream
+    protected ServiceTimeDistribution serviceTimeDistribution;
+    protected double lognormalMu;
+    protected double lognormalSigma;
+    protected boolean dirty = false; // queued on the simulator's dispatch work list
 
 
     public ServiceStation(Simulator.StationName stationName, double meanServiceTime, double serviceStdDev, int numBeds, Simulator simulator) {
         super(stationName);
         this.stationName = stationName;
+        this.stage = PatientTable.stageOf(stationName);
+        this.serviceTimeDistribution = simulator.config.serviceTimeDistribution;
         setServiceTime(meanServiceTime, serviceStdDev);
 
         //for multiple bed support
         this.numBeds = numBeds;
         this.busyBeds = 0;
 
+        this.census = simulator.census;
+        census.setStaffOnDuty(stationName, numBeds); // servers; staffed stations override per shift
         this.queue = new WaitingArea(WaitingArea.PrioritizationPolicy.HIGHER_ACUITY_FIRST);
+        this.queue.attach(simulator, stationName);
         this.departedPatients = new ArrayList<>();
-        this.arrivedPatients = new TreeSet<>(getArrivalTimeComparator());
+        if (simulator.config.retainPatientObjects) this.arrivedPatients = new TreeSet<>(getArrivalTimeComparator());
         this.lwbsPatients = new ArrayList<>();
         this.eventList = simulator.eventList;
         this.simulator = simulator;
+        this.patientTable = simulator.patientTable;
+        this.serviceVariates = simulator.randomStreams.service(stationName);
     }
 
     public void setServiceTime(double meanServiceTime, double serviceStdDev) {
         this.meanServiceTime = meanServiceTime;
         this.serviceStdDev = serviceStdDev;
+        this.lognormalMu = ServiceTimeDistribution.lognormalMu(meanServiceTime, serviceStdDev);
+        this.lognormalSigma = ServiceTimeDistribution.lognormalSigma(meanServiceTime, serviceStdDev);
+    }
+
+    public void setQueuePolicy(WaitingArea.PrioritizationPolicy policy) {
+        queue.changePolicy(policy);
+    }
+
+    public void setServiceTimeDistribution(ServiceTimeDistribution serviceTimeDistribution) {
+        this.serviceTimeDistribution = serviceTimeDistribution;
+    }
+
+    protected double sampleServiceTime() {
+        return switch (serviceTimeDistribution) {
+            case NORMAL -> serviceVariates.normal(meanServiceTime, serviceStdDev);
+            case TRUNCATED_NORMAL -> serviceVariates.truncatedNormal(meanServiceTime, serviceStdDev, 0.0);
+            case LOGNORMAL -> serviceVariates.lognormal(lognormalMu, lognormalSigma);
+        };
+    }
+
+    // stations with a staff pool (zones, triage) override these; single-server stations have nothing to do
+    public void setStaffAvailable(int staffCount) {
+    }
+
+    public void attemptToStartTreatmentForAll(double currentTime) {
     }
 
     public void addPatient(Event currentEvent) {
         Patient patient = currentEvent.patient;
+        recordArrival(patient, currentEvent.eventTime); // queue order is keyed on the arrival time
         queue.add(patient);
-        
-        // CRITICAL: Set arrival time BEFORE adding to TreeSet so sorting works correctly!
-        setPatientArrivalTime(patient, currentEvent.eventTime);
-        arrivedPatients.add(patient);
-        totalArrivals++;
         updatePatientLocation(patient);
         patient.scheduleDecideToLWBS(simulator);
-        setPatientDepartureTime(patient, Double.POSITIVE_INFINITY);
+        recordDepartureTime(patient, Double.POSITIVE_INFINITY);
 
         if (debug == 1) {
-            System.out.println("[" + stationName + "]: Added " + patient.id + " to queue @T: " + currentEvent.eventTime);
+            System.out.println("[" + stationName + "]: Added " + patient.getId() + " to queue @T: " + currentEvent.eventTime);
         }
 
         // if available bed
@@ -64,35 +107,40 @@ public abstract class ServiceStation extends Metrics {
 
     protected void scheduleNextDeparture(double currentTime) {
         Patient nextPatient = queue.poll();
-        setPatientProcessingTime(nextPatient, currentTime);
+        recordProcessingTime(nextPatient, currentTime);
 
-        double serviceTime = Utils.getNormal(meanServiceTime, serviceStdDev);
+        double serviceTime = sampleServiceTime();
 
         //double serviceTime = Utils.getExp((1.0/4.0));
 
 
         double nextDepartureTime = currentTime + serviceTime;
-        eventList.add(new Event(nextDepartureTime, getDepartureEventType(), nextPatient));
-        busyBeds++;
+        simulator.schedule(nextDepartureTime, getDepartureEventType(), nextPatient);
+        changeBusyBeds(1);
         if (debug == 1) {
             System.out.println("[" + stationName + "]: Next departure: " + nextDepartureTime);
         }
     }
 
+    protected void changeBusyBeds(int delta) {
+        busyBeds += delta;
+        census.changeBusyBeds(stationName, delta);
+    }
+
     protected void updatePatientLocation(Patient patient) {
         patient.currentStationName = stationName;
+        patientTable.setLocation(patient.regNo, stationName);
     }
 
     public void departServiceStation(Event currentEvent) {
 
         if (debug == 1) {
-            System.out.println(currentEvent.patient.id + " DP_" + stationName + ": " + currentEvent.eventTime);
+            System.out.println(currentEvent.patient.getId() + " DP_" + stationName + ": " + currentEvent.eventTime);
         }
 
         sendToAppropriateNextStation(currentEvent);
-        setPatientDepartureTime(currentEvent.patient, currentEvent.eventTime);
-        departedPatients.add(currentEvent.patient);
-        busyBeds--;
+        recordDeparture(currentEvent.patient, currentEvent.eventTime);
+        changeBusyBeds(-1);
 
         //start service for another patient if queue isn't empty
         if (!queue.isEmpty()) {
@@ -102,68 +150,124 @@ public abstract class ServiceStation extends Metrics {
 
     }
 
+    // timestamps go to the Patient (via the station's setters) and to the patient table
+    protected void recordArrival(Patient patient, double time) {
+        setPatientArrivalTime(patient, time);
+        patientTable.setTime(patient.regNo, stage, PatientTable.ARRIVAL, time);
+        if (simulator.config.retainPatientObjects) arrivedPatients.add(patient);
+        if (totalArrivals > 0) interArrivalStatistic.add(time - lastArrivalTime); // arrivals come in time order
+        totalArrivals++;
+        lastArrivalTime = time;
+    }
+
+    protected void recordProcessingTime(Patient patient, double time) {
+        setPatientProcessingTime(patient, time);
+        patientTable.setTime(patient.regNo, stage, PatientTable.PROCESSING, time);
+        census.changeInTreatment(stationName, 1);
+    }
+
+    protected void recordDepartureTime(Patient patient, double time) {
+        setPatientDepartureTime(patient, time);
+        patientTable.setTime(patient.regNo, stage, PatientTable.DEPARTURE, time);
+    }
+
+    protected void recordDeparture(Patient patient, double time) {
+        recordDepartureTime(patient, time);
+        census.changeInTreatment(stationName, -1);
+        if (simulator.config.retainPatientObjects) departedPatients.add(patient);
+        if (numDeparted == departedRegNos.length) {
+            departedRegNos = Arrays.copyOf(departedRegNos, numDeparted * 2);
+        }
+        departedRegNos[numDeparted++] = patient.regNo;
+        waitingTimeStatistic.add(getWaitingTime(patient.regNo));
+        serviceTimeStatistic.add(getServiceTime(patient.regNo));
+        responseTimeStatistic.add(getResponseTime(patient.regNo));
+    }
+
+    protected void recordLWBS(Patient patient) {
+        if (simulator.config.retainPatientObjects) lwbsPatients.add(patient);
+        census.recordLWBS(stationName);
+    }
+
+    public RunningStatistic getWaitingTimeStatistic() {
+        return waitingTimeStatistic;
+    }
+
+    public RunningStatistic getServiceTimeStatistic() {
+        return serviceTimeStatistic;
+    }
+
+    public RunningStatistic getResponseTimeStatistic() {
+        return responseTimeStatistic;
+    }
+
+    public int getNumDeparted() {
+        return numDeparted;
+    }
+
+    // regNo of the i-th patient to depart this station
+    public int getDeparted(int i) {
+        return departedRegNos[i];
+    }
+
     public double getArrivalTime(Patient patient) {
-        return switch(stationName) {
-            case ED, SORT -> patient.sortingAT;
-            case REGISTRATION -> patient.registrationAT;
-            case TRIAGE -> patient.triageAT;
-            case REASSESSMENT -> patient.reassessmentAT;
-            case ZONE, ERU, FAST_TRACK, RED, GREEN, BLUE -> patient.zoneAT;
-            default -> patient.sortingAT;
-        };
+        return getArrivalTime(patient.regNo);
     }
 
     public double getProcessingTime(Patient patient) {
-        return switch(stationName) {
-            case ED, SORT -> patient.sortingPT;
-            case REGISTRATION -> patient.registrationPT;
-            case TRIAGE -> patient.triagePT;
-            case REASSESSMENT -> patient.reassessmentPT;
-            case ZONE, ERU, FAST_TRACK, RED, GREEN, BLUE -> patient.zonePT;
-            default -> patient.sortingPT;
-        };
+        return getProcessingTime(patient.regNo);
     }
 
     public double getDepartureTime(Patient patient) {
-        return switch(stationName) {
-            case ED, SORT -> patient.sortingDT;
-            case REGISTRATION -> patient.registrationDT;
-            case TRIAGE -> patient.triageDT;
-            case REASSESSMENT -> patient.reassessmentDT;
-            case ZONE, ERU, FAST_TRACK, RED, GREEN, BLUE -> patient.zoneDT;
-            default -> patient.sortingDT;
-        };
+        return getDepartureTime(patient.regNo);
+    }
+
+    public double getArrivalTime(int regNo) {
+        return patientTable.getTime(regNo, stage, PatientTable.ARRIVAL);
+    }
+
+    public double getProcessingTime(int regNo) {
+        return patientTable.getTime(regNo, stage, PatientTable.PROCESSING);
+    }
+
+    public double getDepartureTime(int regNo) {
+        return patientTable.getTime(regNo, stage, PatientTable.DEPARTURE);
+    }
+
+    public double getWaitingTime(int regNo) {
+        return getProcessingTime(regNo) - getArrivalTime(regNo);
+    }
+
+    public double getServiceTime(int regNo) {
+        return getDepartureTime(regNo) - getProcessingTime(regNo);
+    }
+
+    public double getResponseTime(int regNo) {
+        return getDepartureTime(regNo) - getArrivalTime(regNo);
     }
 
     public double getWaitingTime(Patient patient) {
-        return getProcessingTime(patient) - getArrivalTime(patient);
+        return getWaitingTime(patient.regNo);
     }
 
     public double getServiceTime(Patient patient) {
-        return getDepartureTime(patient) - getProcessingTime(patient);
+        return getServiceTime(patient.regNo);
     }
 
     public double getResponseTime(Patient patient) {
-        return getDepartureTime(patient) - getArrivalTime(patient);
+        return getResponseTime(patient.regNo);
     }
 
-    public double totalInterArrivalTime() {
-        if (arrivedPatients.size() <= 1) return 0.0;
+    // drops the warm-up transient from the departure and arrival statistics
+    public void resetStatistics() {
+        waitingTimeStatistic.clear();
+        serviceTimeStatistic.clear();
+        responseTimeStatistic.clear();
+        interArrivalStatistic.clear();
+    }
 
-        double sum = 0.0;
-        Patient previous = null;
-        
-        // TreeSet iteration is already in sorted order!
-        for (Patient current : arrivedPatients) {
-            if (previous != null) {
-                double currentTime = getArrivalTime(current);
-                double previousTime = getArrivalTime(previous);
-                sum += currentTime - previousTime;
-            }
-            previous = current;
-        }
-        
-        return sum;
+    public RunningStatistic getInterArrivalStatistic() {
+        return interArrivalStatistic;
     }
 
     public Comparator<Patient> getArrivalTimeComparator() {
@@ -183,8 +287,8 @@ public abstract class ServiceStation extends Metrics {
         computeMetrics();
         System.out.println("\n[" + stationName + "]: Quick Stats");
         System.out.printf("Total arrivals: %d%n", totalArrivals);
-        System.out.printf("Total processed: %d%n", departedPatients.size());
-        System.out.printf("Current Queue size [waiting]: %d%n", queue.size());
+        System.out.printf("Total processed: %d%n", numDeparted);
+        System.out.printf("Current Queue size [waiting]: %d%n", census.getWaiting(stationName));
         System.out.printf("Avg arrivals per day: %.2f%n", (totalArrivals / (double) simulator.numDays));
         System.out.printf("%% arrivals at this station: %.2f%%%n", (totalArrivals * 100.0 / simulator.totalArrivals));
         if (stationName != Simulator.StationName.SORT && stationName != Simulator.StationName.REASSESSMENT) {
@@ -198,8 +302,23 @@ public abstract class ServiceStation extends Metrics {
         System.out.printf("[E]Mean %s service time: %s%n", stationName, Utils.formatMinsToHours(meanServiceTime));
         System.out.printf("[R]Mean %s LOS [ResponseTime]: %s%n", stationName, Utils.formatMinsToHours(realResponseTime));
         System.out.printf("[R]Mean %s Inter-Arrival Time: %s%n", stationName, Utils.formatMinsToHours(realMeanInterArrivalTime));
+        System.out.printf("Offered load (λ/μ): %.2f%n", offeredLoad);
         System.out.printf("Utilization (ρ): %.2f%n", utilization);
         System.out.printf("Efficiency: %.2f%%%n", efficiency * 100.0);
+        System.out.printf("Time-avg queue length (Lq): %.2f%n", census.getTimeAverage(Census.Measure.WAITING, stationName));
+        System.out.printf("Time-avg patients at station (L): %.2f%n", patientsInSystem);
+        // Little's law: L should match λW over the same period, up to patients still inside at the end.
+        // λ counts arrivals since warm-up (one inter-arrival gap each), matching the census integration window
+        double observedArrivalRate = interArrivalStatistic.getCount() / census.getIntegrationTime();
+        System.out.printf("Little's law check: L = %.2f, λW = %.2f%n", patientsInSystem, observedArrivalRate * realResponseTime);
+        int numShifts = simulator.staffingRoster.getNumShifts();
+        for (int shift = 0; shift < numShifts; shift++) {
+            System.out.printf("Shift %d: Lq = %.2f, busy = %.2f, on duty = %.2f, ρ = %.2f%n", shift,
+                    census.getShiftAverage(Census.Measure.WAITING, stationName, shift),
+                    census.getShiftAverage(Census.Measure.IN_TREATMENT, stationName, shift),
+                    census.getShiftAverage(Census.Measure.STAFF_ON_DUTY, stationName, shift),
+                    census.getShiftUtilization(stationName, shift));
+        }
     }
 
     public void computeMetrics() {
@@ -207,11 +326,13 @@ public abstract class ServiceStation extends Metrics {
         realMeanServiceTime = Statistics.calculateMean(simulator, stationName, Statistics.Property.PROCESSING_TIME);
         realResponseTime = Statistics.calculateMean(simulator, stationName, Statistics.Property.RESPONSE_TIME);
         realMeanInterArrivalTime = Statistics.calculateMean(simulator, stationName, Statistics.Property.INTER_ARRIVAL_TIME);
-        totalProcessed = departedPatients.size(); // (X) - Throughput
-        currentQueueSize = queue.size(); // (NQ) - Current Queue Size
+        totalProcessed = numDeparted; // (X) - Throughput
+        currentQueueSize = census.getWaiting(stationName); // (NQ) - Current Queue Size
         realServiceRate = (realMeanServiceTime > 0) ? 1.0 / realMeanServiceTime : 0;
         realArrivalRate = (realMeanInterArrivalTime > 0) ? 1.0 / realMeanInterArrivalTime : 0;
-        utilization = (realServiceRate > 0) ? realArrivalRate / realServiceRate : 0;  // Utilization (ρ) = λ / μ
+        offeredLoad = (realServiceRate > 0) ? realArrivalRate / realServiceRate : 0;  // λ / μ
+        utilization = census.getUtilization(stationName); // measured busy fraction of staff on duty
+        patientsInSystem = census.getTimeAverageInSystem(stationName); // (N) - time-averaged
         efficiency = totalProcessed * 1.0 / (double) totalArrivals; // Efficiency = Throughput / Arrivals
 
     }
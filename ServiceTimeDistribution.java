@@ -0,0 +1,19 @@
+/**
+ * Service-time models. Each station draws from its own VariateStream with the
+ * mean and standard deviation given to ServiceStation.setServiceTime.
+ */
+public enum ServiceTimeDistribution {
+    NORMAL,            // legacy model; wide distributions such as fast track (21.38, 13.38) can go negative
+    TRUNCATED_NORMAL,  // normal conditioned on a positive service time
+    LOGNORMAL;         // lognormal with the same mean and standard deviation
+
+    // moment matching: parameters of the underlying normal for a lognormal with this mean and sd
+    public static double lognormalSigma(double mean, double standardDeviation) {
+        return Math.sqrt(Math.log(1.0 + (standardDeviation * standardDeviation) / (mean * mean)));
+    }
+
+    public static double lognormalMu(double mean, double standardDeviation) {
+        double sigma = lognormalSigma(mean, standardDeviation);
+        return Math.log(mean) - 0.5 * sigma * sigma;
+    }
+}
@@ -1,4 +1,6 @@
 import javax.swing.plaf.basic.BasicTableHeaderUI;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Simulator {
@@ -8,14 +10,37 @@ public class Simulator {
     double dayEnd = 24 * 60; // 24 hours in minutes
     double numDays = 1; // default to 1 day for simulation
     double simulationEndTime;
-    int warmUpDays = 30;   // number of days to ignore as warm-up
-    double warmUpEndTime; // cutoff time in minutes (warmUpDays * 24 * 60)
+    RunController runController = new RunController();
+    RunController.StopReason stopReason;
+    int warmUpDays = 30;   // longest warm-up; the fixed warm-up when RunConfig.detectWarmUp is off
+    double warmUpEndTime = Double.POSITIVE_INFINITY; // set when warm-up ends; statistics restart there
+    boolean inWarmUp = true;
+    WarmUpDetector warmUpDetector;
     double lwbsReevaluationPeriod = 30; // minutes after which patients re-evaluate their LWBS decision
-    static boolean enableVariableEDArrivalRate = true; // whether to use variable arrival rates based on time of day
+
+    final RunConfig config; // this run's scenario parameters
+    RandomStreams randomStreams;
+    LWBSHazard lwbsHazard; // null in polling mode
 
     // event calendar
-    PriorityQueue<Event> eventList;
-    List<Patient> edDisposedPatients;
+    EventList eventList;
+    EventPool eventPool;
+    int cancelledEventsPending = 0; // tombstones still sitting in the calendar
+    long eventsProcessed = 0;
+    long instantsProcessed = 0; // distinct timestamps; equals eventsProcessed unless batching
+
+    // dirty-station dispatch: only stations whose state changed re-run treatment admission
+    private static final int DISPATCHABLE_STATIONS = 5; // four zones + triage, formerly swept after every event
+    private final ServiceStation[] dirtyStations = new ServiceStation[StationName.values().length];
+    private int numDirtyStations = 0;
+    long dispatchPasses = 0;
+    long dispatchPassesAvoided = 0;
+    PatientTable patientTable; // timestamps and outcomes for every patient, indexed by regNo
+    Census census = new Census(this);
+    RunningStatistic doorToProviderStatistic = new RunningStatistic(); // disposed patients seen by a provider
+    RunningStatistic edResponseTimeStatistic = new RunningStatistic(); // ED LOS of every disposed patient
+    OutcomeSketches outcomeSketches = new OutcomeSketches(); // p50/p90/p95 by ESI, hour and zone
+    List<Patient> edDisposedPatients; // only filled when RunConfig.retainPatientObjects
     List<Patient> steadyStateDisposedPatients;
     Registration registration;
     SortNurse sortNurse;
@@ -26,6 +51,12 @@ public class Simulator {
     Zone greenZone;
 
     public ReassessmentZone reassessmentZone;
+    StaffingRoster staffingRoster;
+
+    enum LWBSMode {
+        POLLING, // every waiting patient re-rolls LWBS each lwbsReevaluationPeriod
+        HAZARD   // one event per patient at the sampled check (LWBSHazard)
+    }
 
     enum StationName {
         SORT,
@@ -44,16 +75,31 @@ public class Simulator {
    
 
     public Simulator() {
+        this(RunConfig.defaults());
+    }
+
+    public Simulator(long seed) {
+        this(RunConfig.defaults().withSeed(seed));
+    }
+
+    public Simulator(RunConfig config) {
+        this.config = config;
+        staffingRoster = config.scenario.getRoster();
+        randomStreams = new RandomStreams(config.seed, config.prefillVariatesInBackground);
+        warmUpDetector = new WarmUpDetector(config.warmUpMinDays, config.warmUpStableDays);
+        patientTable = new PatientTable();
         edDisposedPatients = new ArrayList<>();
         steadyStateDisposedPatients = new ArrayList<>();
-        eventList = new PriorityQueue<>();
-
-        warmUpEndTime = warmUpDays * 24 * 60;
+        eventList = EventList.create(config.eventListBackend);
+        eventPool = new EventPool();
+        if (config.lwbsMode == LWBSMode.HAZARD) lwbsHazard = new LWBSHazard(this);
 
         eruZone = new Zone(StationName.ERU, this);
         fastTrackZone = new Zone(StationName.FAST_TRACK, this);
         redZone = new Zone(StationName.RED, this);
         greenZone = new Zone(StationName.GREEN, this);
+        greenZone.setQueuePolicy(config.mixedZonePolicy);
+        fastTrackZone.setQueuePolicy(config.mixedZonePolicy);
 
         reassessmentZone = new ReassessmentZone(this);
 
@@ -61,132 +107,170 @@ public class Simulator {
         registration = new Registration(this);
         sortNurse = new SortNurse(this);
         configureServiceTimes();
+        schedule(0.0, Event.EventType.shiftChange, null);
         scheduleNextEDArrival();
     }
 
     public void configureServiceTimes() {
-        sortNurse.setServiceTime(4, 2);
-        registration.setServiceTime(3, 2);
-        triage.setServiceTime(5, 2);
-
-        reassessmentZone.setServiceTime(5, 2);
-
-
-        eruZone.setServiceTime(76, 42);
-        redZone.setServiceTime(66.7, 29.91);
-        greenZone.setServiceTime(38.67, 24.79);
-        fastTrackZone.setServiceTime(21.38, 13.38);
+        for (ServiceStation station : new ServiceStation[]{sortNurse, registration, triage, reassessmentZone, eruZone, redZone, greenZone, fastTrackZone}) {
+            station.setServiceTime(config.scenario.getServiceMean(station.stationName), config.scenario.getServiceStdDev(station.stationName));
+        }
     }
 
 
     public void begin() {
-        simulationEndTime = numDays * dayEnd;
+        run(new RunController().untilTime(numDays * dayEnd));
+    }
 
-        while (currentTime < simulationEndTime) {
-            if (!eventList.isEmpty()) {
-                Event currentEvent = eventList.poll();
-                currentTime = currentEvent.eventTime;
+    public RunController.StopReason run(RunController controller) {
+        runController = controller;
 
+        while (true) {
+            Event currentEvent = peekLiveEvent();
+            stopReason = runController.check(this, currentEvent, eventList.size() - cancelledEventsPending);
+            if (stopReason != null) break;
 
-                //assign staff shifts based on time of day
-                staff(currentTime);
+            eventList.poll();
+            currentTime = currentEvent.eventTime;
+            instantsProcessed++;
+
+            processEvent(currentEvent);
 
-                switch (currentEvent.type) {
-                    case edArrival:
-                        sortNurse.addPatient(currentEvent);
-                        scheduleNextEDArrival();
-                        break;
-                    case sortDeparture:
-                    case registerDeparture:
-                    case triageDeparture:
-                        getStationByName(currentEvent.patient.currentStationName).departServiceStation(currentEvent);
-                        break;
-                    case reassessmentCheck:
-                        runReassessmentCycle(currentEvent);
-                        break;
-                    case reassessmentDeparture:
-                    case zoneDeparture:
-                        getStationByName(currentEvent.patient.currentStationName).departServiceStation(currentEvent);
-                        break;
-                    case decideToLWBS:
-                        currentEvent.patient.processLWBSDecision(this);
-                        break;
-                    default:
-                        System.out.println("[Simulator-ERROR]: unknown event");
+            if (config.batchSimultaneousEvents) {
+                // drain the rest of this instant as one batch
+                Event next;
+                while ((next = peekLiveEvent()) != null && next.eventTime == currentTime) {
+                    eventList.poll();
+                    processEvent(next);
                 }
             }
+
+            dispatchDirtyStations();
         }
 
+        simulationEndTime = currentTime;
+        if (stopReason != RunController.StopReason.TIME_LIMIT) {
+            numDays = currentTime / dayEnd; // per-day averages cover the time actually simulated
+        }
+        return stopReason;
+    }
+
+    // earliest event that is not a tombstone; tombstones met on the way are dropped
+    private Event peekLiveEvent() {
+        Event next = eventList.peek();
+        while (next != null && next.cancelled) {
+            eventList.poll();
+            cancelledEventsPending--;
+            eventPool.release(next);
+            next = eventList.peek();
+        }
+        return next;
+    }
 
+    private void processEvent(Event currentEvent) {
+        eventsProcessed++;
+        switch (currentEvent.type) {
+            case edArrival:
+                sortNurse.addPatient(currentEvent);
+                scheduleNextEDArrival();
+                break;
+            case sortDeparture:
+            case registerDeparture:
+            case triageDeparture:
+                getStationByName(currentEvent.patient.currentStationName).departServiceStation(currentEvent);
+                break;
+            case reassessmentCheck:
+                runReassessmentCycle(currentEvent);
+                break;
+            case reassessmentDeparture:
+            case zoneDeparture:
+                getStationByName(currentEvent.patient.currentStationName).departServiceStation(currentEvent);
+                break;
+            case decideToLWBS:
+                currentEvent.patient.processLWBSDecision(this);
+                break;
+            case shiftChange:
+                int shift = staffingRoster.getShiftIndex(currentTime);
+                census.beginShift(shift);
+                if (inWarmUp && shift == 0 && currentTime > 0) closeWarmUpDay(); // first shift starts at midnight
+                staff(currentTime);
+                schedule(staffingRoster.getNextShiftChange(currentTime), Event.EventType.shiftChange, null);
+                break;
+            default:
+                System.out.println("[Simulator-ERROR]: unknown event");
+        }
+        eventPool.release(currentEvent);
+        if (lwbsHazard != null) lwbsHazard.checkCensus();
     }
 
     public void scheduleNextEDArrival() {
-        double interEDArrivalTime = Utils.getExp(getArrivalRateByTime(currentTime));
+        double interEDArrivalTime = randomStreams.arrivals().exponential(getArrivalRateByTime(currentTime));
         double nextEDArrivalTime = currentTime + interEDArrivalTime;
-        Patient newPatient = new Patient(totalArrivals);
-        eventList.add(new Event(nextEDArrivalTime, Event.EventType.edArrival, newPatient));
+        if (!runController.acceptsArrivalAt(nextEDArrivalTime)) {
+            return; // arrivals closed: the ED drains towards quiescence
+        }
+        Patient newPatient = new Patient(totalArrivals, config.patientMix, randomStreams.get(RandomStreams.Stream.PATIENT_MIX));
+        patientTable.add(newPatient);
+        schedule(nextEDArrivalTime, Event.EventType.edArrival, newPatient);
         totalArrivals++;
         if (debug == 1) {
             System.out.println("\n[Simulator]: Next ED-AT: " + nextEDArrivalTime + "\n");
         }
     }
 
+    // schedules a pooled event; keep the returned handle only while the event is pending
+    public Event schedule(double eventTime, Event.EventType type, Patient patient) {
+        Event event = eventPool.acquire(eventTime, type, patient);
+        eventList.add(event);
+        return event;
+    }
+
+    // O(1) cancellation: the event is tombstoned and dropped when it reaches the head of the calendar
+    public void cancelEvent(Event event) {
+        if (event != null && !event.cancelled) {
+            event.cancelled = true;
+            cancelledEventsPending++;
+        }
+    }
+
     // dynamic arrival time
-    public static double getArrivalRateByTime(double currentTime) {
-        if (!enableVariableEDArrivalRate) {
-            return 10.0 / 60.0; 
+    public double getArrivalRateByTime(double currentTime) {
+        if (!config.variableArrivalRate) {
+            return config.scenario.getFlatArrivalRate();
         }
-        int hour = (int) ((currentTime / 60.0) % 24);
-
-        // scaled rush hour 1–5pm (13–16) for higher patient load
-        return switch (hour) {
-            case 0, 7 -> 5.0 / 60.0;
-            case 1 -> 4.5 / 60.0;
-            case 3 -> 3.0 / 60.0;
-            case 2, 4, 5, 6 -> 4.0 / 60.0;
-            case 8, 22 -> 7.0 / 60.0;
-            case 9 -> 10.0 / 60.0;
-            case 10 -> 13.0 / 60.0;
-            case 11, 12, 13 -> 14.0 / 60.0; //11am-1pm
-            case 14, 15, 16-> 13.0 / 60.0; // 2–4pm
-            case 17 -> 12.0 / 60.0; //5pm
-            case 18, 19 -> 11.0 / 60.0;
-            case 20 -> 9.0 / 60.0;
-            case 21 -> 8.0 / 60.0;
-            case 23 -> 7.0 / 60.0;
-            default -> 9.0 / 60.0;
-        };
+        return config.scenario.getArrivalRate(currentTime);
     }
 
-    // dynamic staffing
+    // dynamic staffing, run on shiftChange events only
     public void staff(double currentTime) {
-        int hour = (int) ((currentTime / 60.0) % 24);
-
-        // Update staff counts
-       if (hour >= 0 && hour < 7) {
-            greenZone.setStaffAvailable(2);
-            redZone.setStaffAvailable(3);
-            fastTrackZone.setStaffAvailable(1);
-            eruZone.setStaffAvailable(1);
-        } else if (hour >= 7 && hour < 15) {
-            greenZone.setStaffAvailable(2);
-            redZone.setStaffAvailable(4);
-            fastTrackZone.setStaffAvailable(1);
-            eruZone.setStaffAvailable(4);
-        } else {
-            greenZone.setStaffAvailable(2);
-            redZone.setStaffAvailable(5);
-            fastTrackZone.setStaffAvailable(1);
-            eruZone.setStaffAvailable(2);
+        for (StationName stationName : staffingRoster.getRosteredStations()) {
+            ServiceStation station = getStationByName(stationName);
+            station.setStaffAvailable(staffingRoster.getStaff(stationName, currentTime));
+
+            //attempt treatment w/ updated staff
+            markDirty(station);
         }
+    }
 
+    // records that a bed, a staff slot or a waitingForStaff entry changed at this station
+    public void markDirty(ServiceStation station) {
+        if (!station.dirty) {
+            station.dirty = true;
+            dirtyStations[numDirtyStations++] = station;
+        }
+    }
 
-        //attempt treatment w/ updated staff
-        greenZone.attemptToStartTreatmentForAll(currentTime);
-        redZone.attemptToStartTreatmentForAll(currentTime);
-        fastTrackZone.attemptToStartTreatmentForAll(currentTime);
-        eruZone.attemptToStartTreatmentForAll(currentTime);
-        triage.attemptToStartTreatmentForAll(currentTime);
+    // runs treatment admission once per dirty station, at the end of the event (or batch)
+    private void dispatchDirtyStations() {
+        for (int i = 0; i < numDirtyStations; i++) {
+            ServiceStation station = dirtyStations[i];
+            dirtyStations[i] = null;
+            station.dirty = false;
+            station.attemptToStartTreatmentForAll(currentTime);
+        }
+        dispatchPasses += numDirtyStations;
+        dispatchPassesAvoided += DISPATCHABLE_STATIONS - numDirtyStations;
+        numDirtyStations = 0;
     }
 
     //reassessment
@@ -199,44 +283,36 @@ public class Simulator {
             return;
         }
 
+        p.reassessmentEvent = null; // fired, no longer cancellable
+
+        //only reassess if patient is still waiting in a zone (not being treated)
         Zone zone = getZoneByPatient(p);
         if (zone == null) {
-            if (debug == 1) System.out.println("[Reassessment] Patient " + p.id + " not found in any zone.");
+            if (debug == 1) System.out.println("[Reassessment] Patient " + p.getId() + " no longer waiting in a zone, skipping reassessment.");
             return;
         }
 
-        //only reassess if patient is still waiting in the queue (not admitted to bed)
-        if (zone.queue.contains(p) || zone.waitingForStaff.contains(p)) {
-            p.timeInQueueBeforeReassessment += (currentTime - zone.getPatientArrivalTime(p));
-
-            zone.queue.remove(p);
-            zone.waitingForStaff.remove(p);  // just in case
-
+        p.timeInQueueBeforeReassessment += (currentTime - zone.getPatientArrivalTime(p));
+        p.leaveWaitingLine();
 
-            reassessmentZone.addPatient(new Event(currentTime, Event.EventType.reassessmentCheck, p));
+        // fresh, unpooled event: the firing one goes back to the pool as soon as processEvent returns,
+        // and ReassessmentZone may keep or reschedule what it receives
+        reassessmentZone.addPatient(new Event(currentTime, Event.EventType.reassessmentCheck, p));
 
-
-            if (debug == 1) {
-                System.out.println("[Reassessment Triggered] Patient " + p.id  + "from zone " + zone.zoneName);
-            }
-
-        } else {
-            if (debug == 1) {
-                System.out.println("[Reassessment] Patient " + p.id + " no longer waiting, skipping reassessment.");
-            }
+        if (debug == 1) {
+            System.out.println("[Reassessment Triggered] Patient " + p.getId()  + "from zone " + zone.zoneName);
         }
     }
 
-    // method to find the zone the patient currently is waiting in:
+    // zone the patient is waiting in, read from its location handle
     private Zone getZoneByPatient(Patient p) {
-        List<Zone> zones = List.of(eruZone, redZone, greenZone, fastTrackZone);
-
-        for (Zone z : zones) {
-            if (z.queue.contains(p) || z.waitingForStaff.contains(p)) {
-                return z;
-            }
-        }
-        return null;
+        return switch (p.getWaitingStation()) {
+            case ERU -> eruZone;
+            case RED -> redZone;
+            case GREEN -> greenZone;
+            case FAST_TRACK -> fastTrackZone;
+            default -> null;
+        };
     }
 
 
@@ -246,17 +322,63 @@ public class Simulator {
     //used to get patients after warm up stage
     public void addDisposedPatient(Patient patient) {
         if (!patient.isCountedDisposed) {
-            edDisposedPatients.add(patient);
+            patientTable.recordDisposal(patient);
+            census.recordDisposal(patient.currentStationName);
+            double doorToProviderTime = patientTable.getDoorToProviderTime(patient.regNo);
+            if (doorToProviderTime > 0) doorToProviderStatistic.add(doorToProviderTime);
+            edResponseTimeStatistic.add(patientTable.getEDResponseTime(patient.regNo));
+            outcomeSketches.recordDisposal(patient.ESILevel, patient.sortingAT, doorToProviderTime, patientTable.getEDResponseTime(patient.regNo));
+            if (config.retainPatientObjects) edDisposedPatients.add(patient);
             patient.isCountedDisposed = true;
-            if (patient.zoneDT >= warmUpEndTime) {
-                steadyStateDisposedPatients.add(patient);
+
+            // drop timers that can no longer affect a disposed patient
+            cancelEvent(patient.lwbsEvent);
+            patient.lwbsEvent = null;
+            if (lwbsHazard != null) lwbsHazard.remove(patient);
+            cancelEvent(patient.reassessmentEvent);
+            patient.reassessmentEvent = null;
+
+            if (inWarmUp) {
+                warmUpDetector.record(patientTable.getEDResponseTime(patient.regNo));
+            } else {
+                runController.recordDisposal(patient);
+                if (config.retainPatientObjects) steadyStateDisposedPatients.add(patient);
             }
         }
     }
 
+    private void closeWarmUpDay() {
+        boolean steady = config.detectWarmUp
+                ? warmUpDetector.closeDay() || currentTime >= warmUpDays * dayEnd
+                : currentTime >= warmUpDays * dayEnd;
+        if (steady) endWarmUp();
+    }
+
+    // reported means, percentiles and time averages restart here; counts cover the whole run
+    private void endWarmUp() {
+        inWarmUp = false;
+        warmUpEndTime = currentTime;
+        doorToProviderStatistic.clear();
+        edResponseTimeStatistic.clear();
+        outcomeSketches = new OutcomeSketches();
+        census.resetIntegrals();
+        for (ServiceStation station : new ServiceStation[]{sortNurse, registration, triage, reassessmentZone,
+                eruZone, redZone, greenZone, fastTrackZone}) {
+            station.resetStatistics();
+        }
+        if (debug == 1) {
+            System.out.printf("[Simulator]: Warm-up ended on day %d (MSER truncation: %d days)%n",
+                    (int) (currentTime / dayEnd), warmUpDetector.getTruncationDays());
+        }
+    }
+
+
+    public int getNumDisposedPatients() {
+        return census.getDisposed();
+    }
 
     public double getTotalDeaths(){
-        return (double)Statistics.countDeaths(edDisposedPatients);
+        return (double)census.getDeaths();
     }
 
 
@@ -287,12 +409,16 @@ public class Simulator {
     public void printQuickStats() {
         System.out.println("========== ED SIMULATION SUMMARY ==========");
         System.out.printf("Days simulated: %d%n", (int) numDays);
+        System.out.println("Run stopped by: " + stopReason);
+        System.out.println("Seed: " + randomStreams.getMasterSeed());
+        System.out.println("Warm-up: " + (inWarmUp ? "not ended (statistics include the transient)"
+                : String.format("ended on day %.0f", warmUpEndTime / dayEnd)));
         System.out.println("-------------------------------------------");
         System.out.printf("Total arrivals: %d%n", totalArrivals);
         System.out.printf("Avg arrivals per day: %.2f%n", totalArrivals / numDays);
-        System.out.printf("Total patients disposed by ED: %d%n", edDisposedPatients.size());
-        System.out.printf("Avg patients disposed per day: %.2f%n", edDisposedPatients.size() / numDays);
-        System.out.printf("%% Disposed: %.2f%%%n", (edDisposedPatients.size() / (double) totalArrivals) * 100);
+        System.out.printf("Total patients disposed by ED: %d%n", getNumDisposedPatients());
+        System.out.printf("Avg patients disposed per day: %.2f%n", getNumDisposedPatients() / numDays);
+        System.out.printf("%% Disposed: %.2f%%%n", (getNumDisposedPatients() / (double) totalArrivals) * 100);
 
         System.out.println("-------------------------------------------");
         System.out.printf("Avg ED Door-to-Provider time: %s%n",
@@ -325,7 +451,7 @@ public class Simulator {
 
 
         System.out.println("-------------------------------------------");
-        int totalDeaths = Statistics.countDeaths(edDisposedPatients);
+        int totalDeaths = census.getDeaths();
         System.out.printf("Total deaths: %d%n", totalDeaths);
         System.out.printf("Death Rate: %.2f%%%n", ((double) totalDeaths / totalArrivals) * 100.0);
         System.out.printf("Avg deaths per day: %.2f%n", totalDeaths / numDays);
@@ -338,13 +464,15 @@ public class Simulator {
 
         System.out.println("-------------------------------------------");
         double totalUnprocessedPatients = (
-            sortNurse.queue.size() +
-            registration.queue.size() +
-            triage.queue.size() + getTotalPatientsInWaitingAreas()
+            census.getWaiting(StationName.SORT) +
+            census.getWaiting(StationName.REGISTRATION) +
+            census.getWaiting(StationName.TRIAGE) + getTotalPatientsInWaitingAreas()
         );
         System.out.printf("Total unprocessed patients in ED: %.0f%n", totalUnprocessedPatients);
         System.out.printf("Last event time: %.2f mins%n", currentTime);
-        System.out.printf("Events unprocessed: %d%n", eventList.size());
+        System.out.printf("Events unprocessed: %d%n", eventList.size() - cancelledEventsPending);
+        System.out.printf("Event objects allocated: %d%n", eventPool.getAllocated());
+        System.out.printf("Dispatch passes run: %d, avoided: %d%n", dispatchPasses, dispatchPassesAvoided);
         System.out.println("===========================================");
     }
 
@@ -368,17 +496,15 @@ public class Simulator {
     }
 
     public int getTotalPatientsInWaitingAreas(){
-        return eruZone.queue.size() + redZone.queue.size() + greenZone.queue.size() + fastTrackZone.queue.size() + triage.queue.size() + registration.queue.size() + sortNurse.queue.size();
+        return census.getWaitingRoomTotal();
     }
 
     public int getTotalLWBSPatients() {
-        int totalLWBS = 0;
-        for (ServiceStation station : List.of(sortNurse, registration, triage, eruZone, redZone, greenZone, fastTrackZone)) {
-            if (station.lwbsPatients != null) {
-                totalLWBS += station.lwbsPatients.size();
-            }
-        }
-        return totalLWBS;
+        return census.getLWBS();
+    }
+
+    public void setStaffingRoster(StaffingRoster staffingRoster) {
+        this.staffingRoster = staffingRoster;
     }
 
     public void runForDays(int numDays) {
@@ -386,17 +512,23 @@ public class Simulator {
         begin();
     }
 
+    // needs RunConfig.retainPatientObjects
     public void printDisposedPatientsLWBSProb(int numPatients) {
         for (int i = 0; i < numPatients && i < edDisposedPatients.size(); i++) {
             Patient patient = edDisposedPatients.get(i);
-            System.out.println("\n====== Patient " + patient.id + " Debug Info ======");
+            System.out.println("\n====== Patient " + patient.getId() + " Debug Info ======");
             patient.printDebugInfo();
 
         }
     }
 
-    public static void main(String[] args) {
-        Simulator sim = new Simulator();
+    // optional argument: a scenario file, see default-scenario.properties
+    public static void main(String[] args) throws IOException {
+        RunConfig config = RunConfig.defaults();
+        if (args.length > 0) {
+            config = config.withScenario(Scenario.load(Path.of(args[0])));
+        }
+        Simulator sim = new Simulator(config);
         sim.runForDays(365);
         sim.printQuickStats(new Simulator.StationName[]{
             Simulator.StationName.ED,
@@ -409,6 +541,7 @@ public class Simulator {
             Simulator.StationName.GREEN,
             Simulator.StationName.ERU
         });
+        sim.outcomeSketches.printReport();
         // sim.printDisposedPatientsLWBSProb(10);
     }
 }
@@ -27,7 +27,7 @@ public class SortNurse extends ServiceStation {
     @Override
     protected void sendToAppropriateNextStation(Event currentEvent) {
         double esi = currentEvent.patient.ESILevel;
-        double rand = Math.random();
+        double rand = simulator.randomStreams.get(RandomStreams.Stream.ROUTING).nextDouble();
 
         Patient p = currentEvent.patient;
 
@@ -0,0 +1,122 @@
+import java.util.AbstractQueue;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO of patients who hold a bed or bay but are waiting for a free staff member.
+ * Intrusive doubly linked list through Patient.staffPrev/staffNext, so add, poll and
+ * removing an arbitrary patient (treatment start, LWBS, reassessment) are O(1) and nothing
+ * is allocated per entry. Each patient's staffQueue handle points here while it is queued,
+ * and successful adds and removals are reported to the simulator's census.
+ */
+public class StaffQueue extends AbstractQueue<Patient> {
+    private final Census census;
+    private final Simulator.StationName stationName;
+    private Patient head;
+    private Patient tail;
+    private int size = 0;
+    private int modCount = 0;
+
+    public StaffQueue(Census census, Simulator.StationName stationName) {
+        this.census = census;
+        this.stationName = stationName;
+    }
+
+    public Simulator.StationName getStationName() {
+        return stationName;
+    }
+
+    @Override
+    public boolean offer(Patient patient) {
+        if (patient.staffQueue != null) {
+            throw new IllegalStateException("[STAFF-QUEUE-ERROR] Patient " + patient.getId() + " is already waiting for staff at " + patient.staffQueue.stationName);
+        }
+        patient.staffPrev = tail;
+        patient.staffNext = null;
+        if (tail == null) head = patient;
+        else tail.staffNext = patient;
+        tail = patient;
+        patient.staffQueue = this;
+        size++;
+        modCount++;
+        census.changeWaitingForStaff(stationName, 1);
+        return true;
+    }
+
+    @Override
+    public Patient poll() {
+        Patient patient = head;
+        if (patient != null) unlink(patient);
+        return patient;
+    }
+
+    @Override
+    public Patient peek() {
+        return head;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Patient && ((Patient) o).staffQueue == this;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        unlink((Patient) o);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Patient> iterator() {
+        return new Iterator<>() {
+            private Patient next = head;
+            private Patient last = null;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Patient next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (next == null) throw new NoSuchElementException();
+                last = next;
+                next = next.staffNext;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                unlink(last);
+                last = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    private void unlink(Patient patient) {
+        Patient prev = patient.staffPrev;
+        Patient next = patient.staffNext;
+        if (prev == null) head = next;
+        else prev.staffNext = next;
+        if (next == null) tail = prev;
+        else next.staffPrev = prev;
+        patient.staffPrev = null;
+        patient.staffNext = null;
+        patient.staffQueue = null;
+        size--;
+        modCount++;
+        census.changeWaitingForStaff(stationName, -1);
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Staff counts per station, per weekday and per shift. The Simulator turns every
+ * shift boundary into a shiftChange event, so staffing is applied only when it changes.
+ * Day 0 of the simulation is weekday 0. Immutable, so one roster can be shared by parallel
+ * runs; the with* methods return modified copies.
+ */
+public final class StaffingRoster {
+    public static final int DAYS_PER_WEEK = 7;
+    private static final double MINS_PER_DAY = 24 * 60;
+
+    private final int[] shiftStartHours; // ascending, first shift starts at 00:00
+    private final int[][][] staff; // [station ordinal][weekday][shift], null where not rostered
+    private final List<Simulator.StationName> rosteredStations;
+
+    // a roster with these shifts and no stations yet
+    public StaffingRoster(int... shiftStartHours) {
+        if (shiftStartHours.length == 0 || shiftStartHours[0] != 0) {
+            throw new IllegalArgumentException("[ROSTER-ERROR] First shift must start at hour 0.");
+        }
+        for (int i = 1; i < shiftStartHours.length; i++) {
+            if (shiftStartHours[i] <= shiftStartHours[i - 1] || shiftStartHours[i] >= 24) {
+                throw new IllegalArgumentException("[ROSTER-ERROR] Shift start hours must be ascending within a day.");
+            }
+        }
+        this.shiftStartHours = shiftStartHours.clone();
+        this.staff = new int[Simulator.StationName.values().length][][];
+        this.rosteredStations = List.of();
+    }
+
+    private StaffingRoster(int[] shiftStartHours, int[][][] staff) {
+        this.shiftStartHours = shiftStartHours;
+        this.staff = staff;
+        List<Simulator.StationName> stations = new ArrayList<>();
+        for (Simulator.StationName station : Simulator.StationName.values()) {
+            if (staff[station.ordinal()] != null) stations.add(station);
+        }
+        this.rosteredStations = Collections.unmodifiableList(stations);
+    }
+
+    // current ED staffing: 00:00-07:00, 07:00-15:00, 15:00-24:00, same every weekday
+    public static StaffingRoster defaultRoster() {
+        return new StaffingRoster(0, 7, 15)
+                .withShiftStaff(Simulator.StationName.TRIAGE, 3, 3, 3)
+                .withShiftStaff(Simulator.StationName.GREEN, 2, 2, 2)
+                .withShiftStaff(Simulator.StationName.RED, 3, 4, 5)
+                .withShiftStaff(Simulator.StationName.FAST_TRACK, 1, 1, 1)
+                .withShiftStaff(Simulator.StationName.ERU, 1, 4, 2);
+    }
+
+    // same staffing on every weekday, one count per shift
+    public StaffingRoster withShiftStaff(Simulator.StationName station, int... countPerShift) {
+        if (countPerShift.length != shiftStartHours.length) {
+            throw new IllegalArgumentException("[ROSTER-ERROR] Expected " + shiftStartHours.length + " shift counts for " + station);
+        }
+        int[][][] copy = copyStaff();
+        copy[station.ordinal()] = new int[DAYS_PER_WEEK][];
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            copy[station.ordinal()][day] = checkCounts(station, countPerShift.clone());
+        }
+        return new StaffingRoster(shiftStartHours, copy);
+    }
+
+    public StaffingRoster withStaff(Simulator.StationName station, int dayOfWeek, int shift, int count) {
+        int[][][] copy = copyStaff();
+        if (copy[station.ordinal()] == null) copy[station.ordinal()] = new int[DAYS_PER_WEEK][shiftStartHours.length];
+        copy[station.ordinal()][dayOfWeek][shift] = count;
+        checkCounts(station, copy[station.ordinal()][dayOfWeek]);
+        return new StaffingRoster(shiftStartHours, copy);
+    }
+
+    private static int[] checkCounts(Simulator.StationName station, int[] counts) {
+        for (int count : counts) {
+            if (count < 0) throw new IllegalArgumentException("[ROSTER-ERROR] Negative staff count for " + station);
+        }
+        return counts;
+    }
+
+    private int[][][] copyStaff() {
+        int[][][] copy = new int[staff.length][][];
+        for (int s = 0; s < staff.length; s++) {
+            if (staff[s] == null) continue;
+            copy[s] = new int[DAYS_PER_WEEK][];
+            for (int day = 0; day < DAYS_PER_WEEK; day++) copy[s][day] = staff[s][day].clone();
+        }
+        return copy;
+    }
+
+    public List<Simulator.StationName> getRosteredStations() {
+        return rosteredStations;
+    }
+
+    public int getStaff(Simulator.StationName station, double time) {
+        return staff[station.ordinal()][getDayOfWeek(time)][getShiftIndex(time)];
+    }
+
+    public int getNumShifts() {
+        return shiftStartHours.length;
+    }
+
+    public int getShiftIndex(double time) {
+        int hour = Utils.getDayTimeFromMins(time);
+        int shift = 0;
+        while (shift + 1 < shiftStartHours.length && shiftStartHours[shift + 1] <= hour) {
+            shift++;
+        }
+        return shift;
+    }
+
+    public static int getDayOfWeek(double time) {
+        return (int) (time / MINS_PER_DAY) % DAYS_PER_WEEK;
+    }
+
+    // time of the first shift boundary strictly after the given time
+    public double getNextShiftChange(double time) {
+        double dayStart = Math.floor(time / MINS_PER_DAY) * MINS_PER_DAY;
+        for (int startHour : shiftStartHours) {
+            double boundary = dayStart + startHour * 60.0;
+            if (boundary > time) return boundary;
+        }
+        return dayStart + MINS_PER_DAY;
+    }
+}
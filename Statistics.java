@@ -8,66 +8,28 @@ public abstract class Statistics{
         INTER_ARRIVAL_TIME     
     }    
     
+    // means are O(1) reads of the running statistics kept at departure and disposal time
     public static double calculateMean(Simulator simulator, Simulator.StationName stationName, Property property) {
-        if (stationName == Simulator.StationName.ED) {
-            double sum = 0.0;
-            double count = 0.0;
-
-            if (property == Property.DOOR_TO_PROVIDER_TIME) {
-                for (Patient p : simulator.edDisposedPatients) {
-
-                    double doorToProviderTime = p.getDoorToProviderTime();
-
-                    // only include patients who were actually seen by a provider (time > 0)
-                    if (doorToProviderTime > 0) {
-                        sum += doorToProviderTime;
-                        count++;
-                    }
-                }
-
-                return (count > 0) ? (sum / count) : 0.0;
-            }
-
-            if (property == Property.RESPONSE_TIME) {
-                for (Patient p : simulator.edDisposedPatients) {
-
-                    sum += p.getEDResponseTime();
-                }
-                return sum / (double) simulator.edDisposedPatients.size();
-            }
+        RunningStatistic statistic = getStatistic(simulator, stationName, property);
+        // only patients who were actually seen by a provider count towards door-to-provider
+        if (property == Property.DOOR_TO_PROVIDER_TIME && statistic.getCount() == 0) return 0.0;
+        if (property == Property.INTER_ARRIVAL_TIME && statistic.getCount() == 0) return 0.0;
+        return statistic.getMean();
+    }
 
+    // full accumulator (count, mean, variance, min, max), e.g. for confidence intervals
+    public static RunningStatistic getStatistic(Simulator simulator, Simulator.StationName stationName, Property property) {
+        if (stationName == Simulator.StationName.ED) {
+            if (property == Property.DOOR_TO_PROVIDER_TIME) return simulator.doorToProviderStatistic;
+            if (property == Property.RESPONSE_TIME) return simulator.edResponseTimeStatistic;
             throw new IllegalArgumentException("[STATISTICS-ERROR] ED station does not have a mean for this property.");
         }
 
         ServiceStation station = simulator.getStationByName(stationName);
-        if (property == Property.INTER_ARRIVAL_TIME) {
-            if (station.totalArrivals < 2) return 0.0;
-            return station.totalInterArrivalTime() / (double)(station.totalArrivals - 1);
-        }
-        
-        if(property == Property.WAITING_TIME) {
-            double sum = 0.0;
-            for (Patient p : station.departedPatients) {
-                sum += station.getWaitingTime(p);
-            }
-            return sum / (double)station.departedPatients.size();
-        }
-
-        if(property == Property.PROCESSING_TIME) {
-            double sum = 0.0;
-            for (Patient p : station.departedPatients) {
-                sum += station.getServiceTime(p);
-            }
-            return sum / (double)station.departedPatients.size();
-        }
-
-        if(property == Property.RESPONSE_TIME) {
-            double sum = 0.0;
-            for (Patient p : station.departedPatients) {
-                sum += station.getResponseTime(p);
-            }
-            return sum / (double)station.departedPatients.size();
-        }
+        if (property == Property.WAITING_TIME) return station.getWaitingTimeStatistic();
+        if (property == Property.PROCESSING_TIME) return station.getServiceTimeStatistic();
+        if (property == Property.RESPONSE_TIME) return station.getResponseTimeStatistic();
+        if (property == Property.INTER_ARRIVAL_TIME) return station.getInterArrivalStatistic();
 
         throw new IllegalArgumentException("[STATISTICS-ERROR]Invalid property: " + property + " for station: " + stationName);
     }
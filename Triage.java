@@ -1,5 +1,6 @@
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.SplittableRandom;
 
 public class Triage extends ServiceStation {
 
@@ -9,8 +10,8 @@ public class Triage extends ServiceStation {
     protected int activeTreatments = 0;
 
     // --- Misdiagnosis properties ---
-    public boolean misdiagnosis = BatchRunner.misdiagnosis;
-    public double stdDevMultiplier = BatchRunner.stdDevMultiplier;
+    public boolean misdiagnosis;
+    public double stdDevMultiplier;
     int numMisdiagnosed;
     int numUnderDiagnosed;
     int numOverDiagnosed;
@@ -23,9 +24,11 @@ public class Triage extends ServiceStation {
 
     public Triage(Simulator simulator) {
         // super(stationName, meanServiceTime, serviceStdDev, numBeds, simulator)
-        super(Simulator.StationName.TRIAGE, 5.0, 2.0, 3, simulator);
-        this.waitingForStaff = new LinkedList<>();
-        this.setStaffAvailable(3);
+        super(Simulator.StationName.TRIAGE, 5.0, 2.0, simulator.config.scenario.getBeds(Simulator.StationName.TRIAGE), simulator);
+        this.waitingForStaff = new StaffQueue(census, Simulator.StationName.TRIAGE);
+        // nurses on duty come from the roster at the first shift change (time 0)
+        this.misdiagnosis = simulator.config.misdiagnosis;
+        this.stdDevMultiplier = simulator.config.stdDevMultiplier;
 
         // Initialize misdiagnosis counters
         this.numMisdiagnosed = 0;
@@ -38,8 +41,10 @@ public class Triage extends ServiceStation {
         this.num5MD = 0;
     }
 
+    @Override
     public void setStaffAvailable(int staffCount) {
         this.maxStaffAvailable = staffCount;
+        census.setStaffOnDuty(stationName, staffCount);
     }
 
     public int getMaxStaffAvailable() {
@@ -86,18 +91,16 @@ public class Triage extends ServiceStation {
             Patient patient = currentEvent.patient;
             double currentTime = currentEvent.eventTime;
 
-            setPatientArrivalTime(patient, currentTime);
-            arrivedPatients.add(patient);
-            totalArrivals++;
+            recordArrival(patient, currentTime);
             updatePatientLocation(patient);
             patient.scheduleDecideToLWBS(simulator);
-            setPatientDepartureTime(patient, Double.POSITIVE_INFINITY);
+            recordDepartureTime(patient, Double.POSITIVE_INFINITY);
 
             // Admit to a triage bay if one is available
             if (busyBeds < numBeds) {
-                busyBeds++;
+                changeBusyBeds(1);
                 waitingForStaff.add(patient);
-                attemptToStartTreatmentForAll(currentTime);
+                simulator.markDirty(this);
             } else {
                 // Add to queue if all bays are full
                 queue.add(patient);
@@ -110,15 +113,16 @@ public class Triage extends ServiceStation {
         // Check if a nurse is available
         if (activeTreatments < maxStaffAvailable) {
             waitingForStaff.remove(patient);
-            setPatientProcessingTime(patient, currentTime);
+            recordProcessingTime(patient, currentTime);
 
-            double serviceTime = Utils.getNormal(meanServiceTime, serviceStdDev);
+            double serviceTime = sampleServiceTime();
             double nextDeparture = currentTime + serviceTime;
-            eventList.add(new Event(nextDeparture, getDepartureEventType(), patient));
+            simulator.schedule(nextDeparture, getDepartureEventType(), patient);
             activeTreatments++;
         }
     }
 
+    @Override
     public void attemptToStartTreatmentForAll(double currentTime) {
         while (!waitingForStaff.isEmpty() && activeTreatments < maxStaffAvailable) {
             Patient next = waitingForStaff.poll();
@@ -131,24 +135,23 @@ public class Triage extends ServiceStation {
         Patient patient = currentEvent.patient;
         double currentTime = currentEvent.eventTime;
 
-        setPatientDepartureTime(patient, currentTime);
-        departedPatients.add(patient);
+        recordDeparture(patient, currentTime);
 
         // A nurse and a bay become free
         activeTreatments--;
-        busyBeds--;
+        changeBusyBeds(-1);
 
         sendToAppropriateNextStation(currentEvent);
 
         // If patients are waiting for a bay, move one in
         if (!queue.isEmpty()) {
             Patient next = queue.poll();
-            busyBeds++;
+            changeBusyBeds(1);
             waitingForStaff.add(next);
         }
 
-        // Try to start service for any patient waiting for a nurse
-        attemptToStartTreatmentForAll(currentTime);
+        // A nurse is free: start service for waiting patients when the simulator dispatches dirty stations
+        simulator.markDirty(this);
     }
 
     // --- Misdiagnosis and Routing Logic ---
@@ -156,33 +159,28 @@ public class Triage extends ServiceStation {
     @Override
     protected void sendToAppropriateNextStation(Event currentEvent) {
         Patient patient = currentEvent.patient;
+        Scenario scenario = simulator.config.scenario;
         int hour = (int) ((currentEvent.eventTime / 60.0) % 24);
         double routingESI;
 
         if (misdiagnosis) {
-            double misdiagnosisRate = switch (hour) {
-                case 0, 1, 2, 3, 4, 5 -> 0.05;
-                case 6, 7, 8, 9 -> 0.1;
-                case 10, 11, 12, 13, 14, 15, 16 -> 0.15;
-                case 17, 18, 19 -> 0.1;
-                default -> 0.07;
-            };
-            diagnose(patient, misdiagnosisRate);
+            diagnose(patient, scenario.getMisdiagnosisRate(hour));
             routingESI = patient.assignedESI;
         } else {
             routingESI = patient.ESILevel;
             patient.assignedESI = routingESI;
         }
 
+        SplittableRandom routing = simulator.randomStreams.get(RandomStreams.Stream.ROUTING);
         Zone targetZone;
         if (routingESI == 1) {
             targetZone = simulator.eruZone;
         } else if (routingESI == 2) {
             targetZone = simulator.redZone;
         } else if (routingESI == 3) {
-            targetZone = (Math.random() < 0.33) ? simulator.redZone : simulator.greenZone;
+            targetZone = (routing.nextDouble() < scenario.getEsi3RedShare()) ? simulator.redZone : simulator.greenZone;
         } else if (routingESI == 4) {
-            targetZone = (Math.random() < 0.2) ? simulator.greenZone : simulator.fastTrackZone;
+            targetZone = (routing.nextDouble() < scenario.getEsi4GreenShare()) ? simulator.greenZone : simulator.fastTrackZone;
         } else {
             targetZone = simulator.fastTrackZone;
         }
@@ -194,6 +192,7 @@ public class Triage extends ServiceStation {
     public void diagnose(Patient patient, double baseMisdiagnosisRate) {
         int trueESI = patient.ESILevel;
         int routingESI = trueESI;
+        SplittableRandom random = simulator.randomStreams.get(RandomStreams.Stream.MISDIAGNOSIS);
 
         double patientComplexity = patient.complexity;
         double overloadFactor = (double) this.queue.size() / (getMaxStaffAvailable() + 1);
@@ -203,21 +202,21 @@ public class Triage extends ServiceStation {
 
         if (trueESI == 1) {
             double rareMistake = 0.01 * (1.0 + 0.5 * patientComplexity);
-            if (Math.random() < rareMistake) {
-                routingESI = Math.random() < 0.7 ? 2 : 3;
+            if (random.nextDouble() < rareMistake) {
+                routingESI = random.nextDouble() < 0.7 ? 2 : 3;
                 patient.wasMisdiagnosed = true;
                 patient.misdiagnosisDelta = routingESI - trueESI;
                 num1MD++;
                 numUnderDiagnosed++;
                 patient.underDiagnosed = true;
             }
-        } else if (Math.random() < misdiagnosisRate) {
+        } else if (random.nextDouble() < misdiagnosisRate) {
             double bias = 0.0;
             switch (trueESI) {
-                case 2 -> bias = (Math.random() < 0.05) ? -1.0 : 1.0;
-                case 3 -> bias = (Math.random() < 0.4) ? -1.0 : 1.0;
-                case 4 -> bias = (Math.random() < 0.3) ? -1.0 : 1.0;
-                case 5 -> bias = (Math.random() < 0.6) ? -1.0 : -2.0;
+                case 2 -> bias = (random.nextDouble() < 0.05) ? -1.0 : 1.0;
+                case 3 -> bias = (random.nextDouble() < 0.4) ? -1.0 : 1.0;
+                case 4 -> bias = (random.nextDouble() < 0.3) ? -1.0 : 1.0;
+                case 5 -> bias = (random.nextDouble() < 0.6) ? -1.0 : -2.0;
             }
 
             double stdDev = switch (trueESI) {
@@ -226,7 +225,7 @@ public class Triage extends ServiceStation {
                 default -> 1.0;
             };
 
-            double diagnosedESI = Utils.getNormal(trueESI + bias, stdDev * stdDevMultiplier);
+            double diagnosedESI = Utils.getNormal(random, trueESI + bias, stdDev * stdDevMultiplier);
             int finalDiagnosedESI = (int) Math.round(Math.max(1.0, Math.min(5.0, diagnosedESI)));
 
             if (trueESI >= 3 && finalDiagnosedESI < 2) {
@@ -1,10 +1,22 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
 public abstract class Utils {
+    public static double getNormal(SplittableRandom random, double mean, double standardDeviation) {
+        return mean + standardDeviation * Ziggurat.nextNormal(random);
+    }
+    public static double getExp(SplittableRandom random, double rate){
+        if(rate == 0) return Integer.MAX_VALUE;
+        return Ziggurat.nextExponential(random) / rate;
+    }
+
+    // unseeded variants for code outside a simulation run (tests, mains)
     public static double getNormal(double mean, double standardDeviation) {
-        return mean + standardDeviation * new java.util.Random().nextGaussian();
+        return mean + standardDeviation * ThreadLocalRandom.current().nextGaussian();
     }
     public static double getExp(double rate){
         if(rate == 0) return Integer.MAX_VALUE;
-        double u = Math.random();
+        double u = ThreadLocalRandom.current().nextDouble();
         return (-1.0/rate)*Math.log(1-u);
     }
 
@@ -0,0 +1,120 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Buffered variate generator for one random stream. Standard normals and exponentials are
+ * produced in blocks by the ziggurat samplers and handed out from primitive buffers; with
+ * background prefill the next block is generated on a worker thread while the current one
+ * is consumed. Each buffer owns its own split of the stream, so results do not depend on
+ * whether or when prefill runs.
+ */
+public class VariateStream {
+    public static final int BLOCK_SIZE = 512;
+
+    private final SplittableRandom uniformSource;
+    private final Buffer normals;
+    private final Buffer exponentials;
+
+    public VariateStream(SplittableRandom source, boolean backgroundPrefill) {
+        this.normals = new Buffer(source.split(), true, backgroundPrefill);
+        this.exponentials = new Buffer(source.split(), false, backgroundPrefill);
+        this.uniformSource = source;
+    }
+
+    public double nextUniform() {
+        return uniformSource.nextDouble();
+    }
+
+    public double nextStandardNormal() {
+        return normals.next();
+    }
+
+    public double nextStandardExponential() {
+        return exponentials.next();
+    }
+
+    public double normal(double mean, double standardDeviation) {
+        return mean + standardDeviation * normals.next();
+    }
+
+    // normal conditioned on being above lowerBound (rejection; mean must be well above the bound)
+    public double truncatedNormal(double mean, double standardDeviation, double lowerBound) {
+        double x;
+        do {
+            x = mean + standardDeviation * normals.next();
+        } while (x <= lowerBound);
+        return x;
+    }
+
+    // mu and sigma of the underlying normal; see ServiceTimeDistribution for moment matching
+    public double lognormal(double mu, double sigma) {
+        return Math.exp(mu + sigma * normals.next());
+    }
+
+    public double exponential(double rate) {
+        if (rate == 0) return Integer.MAX_VALUE;
+        return exponentials.next() / rate;
+    }
+
+    private static final class Buffer {
+        private final SplittableRandom random;
+        private final boolean normal;
+        private double[] block = new double[BLOCK_SIZE];
+        private int position = BLOCK_SIZE;
+        private Future<double[]> pending;
+
+        Buffer(SplittableRandom random, boolean normal, boolean backgroundPrefill) {
+            this.random = random;
+            this.normal = normal;
+            if (backgroundPrefill) {
+                double[] first = new double[BLOCK_SIZE];
+                pending = PrefillExecutor.INSTANCE.submit(() -> fill(first));
+            }
+        }
+
+        double next() {
+            if (position == BLOCK_SIZE) refill();
+            return block[position++];
+        }
+
+        private void refill() {
+            if (pending == null) {
+                fill(block);
+            } else {
+                double[] consumed = block;
+                try {
+                    block = pending.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("[VARIATES-ERROR] Interrupted while waiting for prefill.", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("[VARIATES-ERROR] Prefill failed.", e.getCause());
+                }
+                // recycle the consumed block for the next background fill
+                pending = PrefillExecutor.INSTANCE.submit(() -> fill(consumed));
+            }
+            position = 0;
+        }
+
+        private double[] fill(double[] target) {
+            if (normal) {
+                for (int i = 0; i < target.length; i++) target[i] = Ziggurat.nextNormal(random);
+            } else {
+                for (int i = 0; i < target.length; i++) target[i] = Ziggurat.nextExponential(random);
+            }
+            return target;
+        }
+    }
+
+    // lazily created, shared daemon pool for background prefill
+    private static final class PrefillExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "variate-prefill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,43 +1,208 @@
 import java.util.*;
 
-public class WaitingArea extends TreeSet<Patient> {
+/**
+ * Station waiting queue, bucketed by assigned ESI (0 = not yet triaged, then 1..5).
+ * Each bucket is an intrusive FIFO through Patient.waitingPrev/waitingNext, ordered by
+ * ED arrival (sortingAT), so add, poll and remove-by-patient are O(1) and the policy only
+ * decides which bucket head leaves next. Changing policy needs no rebuild. Iteration is
+ * bucket by bucket.
+ *
+ * ACCUMULATING_PRIORITY: a patient's priority is the run's accumulation rate for its
+ * bucket (RunConfig.withAccumulationRates) times the time since ED arrival. Within a bucket
+ * the head always has the highest priority, so poll compares the six heads at the current
+ * time instead of re-sorting the queue.
+ */
+public class WaitingArea extends AbstractQueue<Patient> {
 
     public enum PrioritizationPolicy {
-        HIGHER_ACUITY_FIRST, EARLY_ARRIVAL_FIRST
+        HIGHER_ACUITY_FIRST, EARLY_ARRIVAL_FIRST, ACCUMULATING_PRIORITY
     }
 
+    private static final int NUM_BUCKETS = 6;
+
+    private final Patient[] heads = new Patient[NUM_BUCKETS];
+    private final Patient[] tails = new Patient[NUM_BUCKETS];
+    private int nonEmptyBuckets = 0; // bit per bucket
+    private int size = 0;
+    private PrioritizationPolicy policy;
+
+    private Simulator simulator; // optional; clock for ACCUMULATING_PRIORITY and census updates
+    private Census census;
+    private Simulator.StationName stationName;
+    private double[] accumulationRates; // copy of the run's rates per minute of waiting, by bucket
+
     public WaitingArea(PrioritizationPolicy policy) {
-        super(getComparator(policy));
+        this.policy = policy;
+    }
+
+    public void attach(Simulator simulator, Simulator.StationName stationName) {
+        this.simulator = simulator;
+        this.census = simulator.census;
+        this.stationName = stationName;
+        this.accumulationRates = simulator.config.getAccumulationRates();
+    }
+
+    private static int bucketOf(Patient patient) {
+        int esi = (int) patient.assignedESI;
+        return Math.max(0, Math.min(NUM_BUCKETS - 1, esi));
     }
 
-    private static Comparator<Patient> getComparator(PrioritizationPolicy policy) {
-        return switch (policy) {
-            case HIGHER_ACUITY_FIRST -> Comparator
-                    .comparing((Patient p) -> p.assignedESI)
-                    .thenComparing((Patient p) -> p.sortingAT);
-            case EARLY_ARRIVAL_FIRST -> Comparator
-                    .comparing((Patient p) -> p.sortingAT)
-                    .thenComparing((Patient p) -> p.assignedESI);
+    @Override
+    public boolean offer(Patient patient) {
+        if (patient.waitingArea != null) {
+            throw new IllegalStateException("[WAITING-AREA-ERROR] Patient " + patient.getId() + " is already queued.");
+        }
+        int bucket = bucketOf(patient);
+
+        // arrivals are almost always in sortingAT order, so this walk is usually empty
+        Patient after = tails[bucket];
+        while (after != null && after.sortingAT > patient.sortingAT) {
+            after = after.waitingPrev;
+        }
+        Patient before = (after == null) ? heads[bucket] : after.waitingNext;
+        patient.waitingPrev = after;
+        patient.waitingNext = before;
+        if (after == null) heads[bucket] = patient;
+        else after.waitingNext = patient;
+        if (before == null) tails[bucket] = patient;
+        else before.waitingPrev = patient;
+
+        patient.waitingArea = this;
+        patient.waitingBucket = bucket;
+        nonEmptyBuckets |= 1 << bucket;
+        size++;
+        if (census != null) census.changeWaiting(stationName, 1);
+        return true;
+    }
+
+    // get patient with higher priority
+    @Override
+    public Patient poll() {
+        Patient next = peek();
+        if (next != null) unlink(next);
+        return next;
+    }
+
+    @Override
+    public Patient peek() {
+        if (nonEmptyBuckets == 0) return null;
+        if (policy == PrioritizationPolicy.HIGHER_ACUITY_FIRST) {
+            return heads[Integer.numberOfTrailingZeros(nonEmptyBuckets)];
+        }
+        if (policy == PrioritizationPolicy.ACCUMULATING_PRIORITY) {
+            return highestAccumulatedPriority();
+        }
+        // EARLY_ARRIVAL_FIRST: earliest head, lower bucket on ties
+        Patient best = null;
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            Patient head = heads[bucket];
+            if (head != null && (best == null || head.sortingAT < best.sortingAT)) {
+                best = head;
+            }
+        }
+        return best;
+    }
+
+    // highest rate * (now - sortingAT) among bucket heads, lower bucket on ties
+    private Patient highestAccumulatedPriority() {
+        if (simulator == null) {
+            throw new IllegalStateException("[WAITING-AREA-ERROR] ACCUMULATING_PRIORITY needs a simulator clock.");
+        }
+        double now = simulator.currentTime;
+        Patient best = null;
+        double bestPriority = Double.NEGATIVE_INFINITY;
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            Patient head = heads[bucket];
+            if (head == null) continue;
+            double priority = accumulationRates[bucket] * (now - head.sortingAT);
+            if (priority > bestPriority) {
+                best = head;
+                bestPriority = priority;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Patient && ((Patient) o).waitingArea == this;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        unlink((Patient) o);
+        return true;
+    }
+
+    private void unlink(Patient patient) {
+        int bucket = patient.waitingBucket;
+        Patient prev = patient.waitingPrev;
+        Patient next = patient.waitingNext;
+        if (prev == null) heads[bucket] = next;
+        else prev.waitingNext = next;
+        if (next == null) tails[bucket] = prev;
+        else next.waitingPrev = prev;
+        if (heads[bucket] == null) nonEmptyBuckets &= ~(1 << bucket);
+
+        patient.waitingPrev = null;
+        patient.waitingNext = null;
+        patient.waitingArea = null;
+        size--;
+        if (census != null) census.changeWaiting(stationName, -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Patient> iterator() {
+        return new Iterator<Patient>() {
+            private int bucket = 0;
+            private Patient next = advance(null);
+
+            private Patient advance(Patient current) {
+                Patient candidate = (current == null) ? null : current.waitingNext;
+                while (candidate == null && bucket < NUM_BUCKETS) {
+                    candidate = heads[bucket++];
+                }
+                return candidate;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Patient next() {
+                if (next == null) throw new NoSuchElementException();
+                Patient current = next;
+                next = advance(current);
+                return current;
+            }
         };
     }
 
     public void reTriage() {
-        super.forEach(p -> {
+        forEach(p -> {
             // reTriageLogic: ie: p.acuity = p.inferAcuity(p.ESILevel);
         });
     }
 
-    // get patient with higher priority
-    public Patient poll() {
-        return super.pollFirst();
+    public PrioritizationPolicy getPolicy() {
+        return policy;
     }
 
+    public Simulator.StationName getStationName() {
+        return stationName == null ? Simulator.StationName.NONE : stationName;
+    }
+
+    // buckets are policy-independent, so switching takes effect on the next poll
     public void changePolicy(PrioritizationPolicy newPolicy) {
-        Comparator<Patient> newComp = getComparator(newPolicy);
-        TreeSet<Patient> reordered = new TreeSet<>(newComp);
-        reordered.addAll(this);
-        this.clear();
-        this.addAll(reordered);
+        this.policy = newPolicy;
     }
 
     //iterate over patients
@@ -52,15 +217,14 @@ public class WaitingArea extends TreeSet<Patient> {
         // add five patients for testing
         for (int i = 1; i <= 5; i++) {
             Patient p = new Patient(i);
-            wa.add(p);
             p.sortingAT = i;
+            wa.add(p);
         }
 
         // print patients in waiting area
         while (!wa.isEmpty()) {
-            Patient pa = wa.pollFirst();
-            System.out.println("Patient ID: " + pa.id + ", ESI: " + pa.ESILevel + ", Arrival Time: " + pa.sortingAT);
+            Patient pa = wa.poll();
+            System.out.println("Patient ID: " + pa.getId() + ", ESI: " + pa.ESILevel + ", Arrival Time: " + pa.sortingAT);
         }
     }
 }
-
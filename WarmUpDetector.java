@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+/**
+ * Online warm-up detection with MSER (marginal standard error rule) on daily batches of
+ * ED LOS. At the close of each day the batch means Y_1..Y_n are scanned for the truncation
+ * d in [0, n/2] that minimises
+ *
+ *   MSER(d) = sum_{i>d} (Y_i - mean_d)^2 / (n - d)^2
+ *
+ * using prefix sums, so one scan is O(n). While the ED is still filling, the minimum sits
+ * at the n/2 boundary. On a handful of days an interior minimum is almost guaranteed, so it
+ * is trusted only once the same d has come out of stableDays consecutive closes (and at
+ * least minDays have been seen); a cut that keeps moving means the level is still drifting.
+ * The caller discards everything up to the detection day, which is later than d, so the
+ * cut is conservative.
+ */
+public class WarmUpDetector {
+    private final int minDays;    // days of batches before the rule is trusted
+    private final int stableDays; // consecutive closes that must agree on the truncation
+
+    private double[] dailyMeans = new double[64];
+    private int numDays = 0;
+    private double daySum = 0.0;
+    private int dayCount = 0;
+    private int truncationDays = -1;
+    private int candidate = -1; // interior truncation found at the latest close, -1 if none
+    private int candidateCloses = 0;
+
+    public WarmUpDetector(int minDays, int stableDays) {
+        this.minDays = minDays;
+        this.stableDays = stableDays;
+    }
+
+    public void record(double edLOS) {
+        daySum += edLOS;
+        dayCount++;
+    }
+
+    // closes the running day's batch; true once steady state is detected
+    public boolean closeDay() {
+        if (dayCount == 0) return false; // nobody left the ED today
+        if (numDays == dailyMeans.length) dailyMeans = Arrays.copyOf(dailyMeans, numDays * 2);
+        dailyMeans[numDays++] = daySum / dayCount;
+        daySum = 0.0;
+        dayCount = 0;
+
+        int d = mserTruncation(dailyMeans, numDays);
+        if (d >= numDays / 2) {
+            candidate = -1; // minimum on the boundary: still in the transient
+            candidateCloses = 0;
+            return false;
+        }
+        if (d == candidate) {
+            candidateCloses++;
+        } else {
+            candidate = d;
+            candidateCloses = 1;
+        }
+        if (numDays < minDays || candidateCloses < stableDays) return false;
+        truncationDays = d;
+        return true;
+    }
+
+    // argmin of MSER(d) over d in [0, n/2]
+    static int mserTruncation(double[] y, int n) {
+        // suffix sums: the kept batches are y[d..n-1]
+        double sum = 0.0;
+        double sumSq = 0.0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = n / 2;
+        for (int i = n - 1; i >= 0; i--) {
+            sum += y[i];
+            sumSq += y[i] * y[i];
+            if (i > n / 2) continue;
+            int kept = n - i;
+            double squaredDeviations = Math.max(0.0, sumSq - sum * sum / kept);
+            double mser = squaredDeviations / ((double) kept * kept);
+            if (mser <= best) { // ties go to the smaller truncation
+                best = mser;
+                bestD = i;
+            }
+        }
+        return bestD;
+    }
+
+    public int getNumDays() {
+        return numDays;
+    }
+
+    // MSER truncation point in days when steady state was detected, -1 before that
+    public int getTruncationDays() {
+        return truncationDays;
+    }
+}
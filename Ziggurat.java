@@ -0,0 +1,101 @@
+import java.util.SplittableRandom;
+
+/**
+ * Ziggurat samplers for the standard normal (128 layers) and standard exponential
+ * (256 layers) distributions, after Marsaglia and Tsang (2000). About 99% of draws cost
+ * one 64-bit random word, one table compare and one multiply; layer index and value come
+ * from separate bits of that word so they are not correlated.
+ */
+public final class Ziggurat {
+    private static final double NORMAL_R = 3.442619855899;
+    private static final double NORMAL_V = 9.91256303526217e-3;
+    private static final double EXP_R = 7.697117470131487;
+    private static final double EXP_V = 3.949659822581572e-3;
+
+    private static final double[] KN = new double[128];
+    private static final double[] WN = new double[128];
+    private static final double[] FN = new double[128];
+    private static final double[] KE = new double[256];
+    private static final double[] WE = new double[256];
+    private static final double[] FE = new double[256];
+
+    static {
+        double m1 = 2147483648.0;
+        double dn = NORMAL_R;
+        double tn = dn;
+        double q = NORMAL_V / Math.exp(-0.5 * dn * dn);
+        KN[0] = (dn / q) * m1;
+        KN[1] = 0;
+        WN[0] = q / m1;
+        WN[127] = dn / m1;
+        FN[0] = 1.0;
+        FN[127] = Math.exp(-0.5 * dn * dn);
+        for (int i = 126; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(NORMAL_V / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (dn / tn) * m1;
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / m1;
+        }
+
+        double m2 = 4294967296.0;
+        double de = EXP_R;
+        double te = de;
+        q = EXP_V / Math.exp(-de);
+        KE[0] = (de / q) * m2;
+        KE[1] = 0;
+        WE[0] = q / m2;
+        WE[255] = de / m2;
+        FE[0] = 1.0;
+        FE[255] = Math.exp(-de);
+        for (int i = 254; i >= 1; i--) {
+            de = -Math.log(EXP_V / de + Math.exp(-de));
+            KE[i + 1] = (de / te) * m2;
+            te = de;
+            FE[i] = Math.exp(-de);
+            WE[i] = de / m2;
+        }
+    }
+
+    private Ziggurat() {
+    }
+
+    public static double nextNormal(SplittableRandom random) {
+        while (true) {
+            long bits = random.nextLong();
+            int iz = (int) (bits & 127);
+            int hz = (int) (bits >> 32);
+            double x = hz * WN[iz];
+            if (Math.abs((long) hz) < KN[iz]) return x;
+
+            if (iz == 0) {
+                // tail beyond R: Marsaglia's exponential rejection
+                double xt;
+                double y;
+                do {
+                    xt = -Math.log(uniformPositive(random)) / NORMAL_R;
+                    y = -Math.log(uniformPositive(random));
+                } while (y + y < xt * xt);
+                return (hz > 0) ? NORMAL_R + xt : -NORMAL_R - xt;
+            }
+            if (FN[iz] + random.nextDouble() * (FN[iz - 1] - FN[iz]) < Math.exp(-0.5 * x * x)) return x;
+        }
+    }
+
+    public static double nextExponential(SplittableRandom random) {
+        while (true) {
+            long bits = random.nextLong();
+            int iz = (int) (bits & 255);
+            long jz = bits >>> 32;
+            double x = jz * WE[iz];
+            if (jz < KE[iz]) return x;
+
+            if (iz == 0) return EXP_R - Math.log(uniformPositive(random));
+            if (FE[iz] + random.nextDouble() * (FE[iz - 1] - FE[iz]) < Math.exp(-x)) return x;
+        }
+    }
+
+    private static double uniformPositive(SplittableRandom random) {
+        return 1.0 - random.nextDouble(); // (0, 1]
+    }
+}
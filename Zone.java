@@ -3,35 +3,25 @@ import java.util.*;
 
 public class Zone extends ServiceStation {
 
-    public int reassessmentDelay = BatchRunner.reassessmentDelay;
+    public int reassessmentDelay;
+    protected boolean reassessmentEnabled;
 
     public List<Patient> zoneDepartedPatients;
-    private List<Patient> edDisposedPatients;
     protected Simulator.StationName zoneName;
 
     //beds and staff treatment handling
     protected  Queue<Patient> waitingForStaff;  // patients admitted to a bed but waiting for staff
     protected int maxStaffAvailable;
     protected int activeTreatments = 0;
-    protected int busyBeds = 0; //occupied beds
 
 
     public Zone(Simulator.StationName zoneName, Simulator simulator) {
-        super(zoneName, 4, 1.0, getZoneCapacity(zoneName), simulator);
-        this.edDisposedPatients = simulator.edDisposedPatients;
+        super(zoneName, 4, 1.0, simulator.config.scenario.getBeds(zoneName), simulator);
         this.zoneName = zoneName;
         this.zoneDepartedPatients = this.departedPatients;
-        this.waitingForStaff = new LinkedList<>();
-    }
-
-    private static int getZoneCapacity(Simulator.StationName zoneName) {
-        switch (zoneName) {
-            case ERU: return 14;
-            case FAST_TRACK: return 19;
-            case RED: return 34;
-            case GREEN: return 10;
-            default: return 1;
-        }
+        this.waitingForStaff = new StaffQueue(census, zoneName);
+        this.reassessmentDelay = simulator.config.reassessmentDelay;
+        this.reassessmentEnabled = simulator.config.reassessmentEnabled;
     }
 
     @Override
@@ -64,8 +54,10 @@ public class Zone extends ServiceStation {
         }
     }
 
+    @Override
     public void setStaffAvailable(int staffCount) {
         this.maxStaffAvailable = staffCount;
+        census.setStaffOnDuty(stationName, staffCount);
     }
 
 
@@ -78,29 +70,23 @@ public class Zone extends ServiceStation {
 //        totalArrivals++;
 //        arrivedPatients.add(patient);
 
-        // CRITICAL: Set arrival time BEFORE adding to TreeSet so sorting works correctly!
-        setPatientArrivalTime(patient, currentEvent.eventTime);
-        arrivedPatients.add(patient);
-        totalArrivals++;
+        recordArrival(patient, currentEvent.eventTime);
         updatePatientLocation(patient);
         patient.scheduleDecideToLWBS(simulator);
-        setPatientDepartureTime(patient, Double.POSITIVE_INFINITY);
+        recordDepartureTime(patient, Double.POSITIVE_INFINITY);
 
         if ((busyBeds < numBeds)) {
-            busyBeds++;
+            changeBusyBeds(1);
             waitingForStaff.add(patient);
+            simulator.markDirty(this);
         } else queue.add(patient);
 
 
-        if (BatchRunner.reassessmentEnabled && !patient.reassessed) {
+        if (reassessmentEnabled && !patient.reassessed) {
           //  eventList.add(new Event(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient));
 
-            Event reassessEvt = new Event(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient);
-            eventList.add(reassessEvt);
-            patient.reassessmentEvent = reassessEvt;
+            patient.reassessmentEvent = simulator.schedule(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient);
         }
-
-        attemptToStartTreatmentForAll(currentTime);
     }
 
     @Override
@@ -115,28 +101,23 @@ public class Zone extends ServiceStation {
 //        arrivedPatients.add(patient);
 
 
-        // CRITICAL: Set arrival time BEFORE adding to TreeSet so sorting works correctly!
-        setPatientArrivalTime(patient, currentEvent.eventTime);
-        arrivedPatients.add(patient);
-        totalArrivals++;
+        recordArrival(patient, currentEvent.eventTime);
         updatePatientLocation(patient);
         patient.scheduleDecideToLWBS(simulator);
-        setPatientDepartureTime(patient, Double.POSITIVE_INFINITY);
+        recordDepartureTime(patient, Double.POSITIVE_INFINITY);
 
         // admit if a bed is available
         if (busyBeds < numBeds) {
-            busyBeds++;
+            changeBusyBeds(1);
             waitingForStaff.add(patient);
-            attemptToStartTreatment(patient, currentTime);
+            simulator.markDirty(this);
         } else queue.add(patient);
 
         // Schedule reassessment event for all patients who haven't been reassessed yet
-        if (BatchRunner.reassessmentEnabled && !patient.reassessed ) {
+        if (reassessmentEnabled && !patient.reassessed ) {
            // eventList.add(new Event(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient));
 
-            Event reassessEvt = new Event(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient);
-            eventList.add(reassessEvt);
-            patient.reassessmentEvent = reassessEvt;
+            patient.reassessmentEvent = simulator.schedule(currentTime + reassessmentDelay, Event.EventType.reassessmentCheck, patient);
         }
 
     }
@@ -147,7 +128,7 @@ public class Zone extends ServiceStation {
         if (activeTreatments < maxStaffAvailable) {
 
             if (patient.reassessmentEvent != null) {
-                eventList.remove(patient.reassessmentEvent);  // cancel scheduled reassessment event
+                simulator.cancelEvent(patient.reassessmentEvent);  // cancel scheduled reassessment event
                 patient.reassessmentEvent = null;
             }
 
@@ -156,20 +137,20 @@ public class Zone extends ServiceStation {
 
             //begin treatment
             waitingForStaff.remove(patient);
-            setPatientProcessingTime(patient, currentTime);
+            recordProcessingTime(patient, currentTime);
 
-            double serviceTime = Utils.getNormal(meanServiceTime, serviceStdDev);
+            double serviceTime = sampleServiceTime();
 
             serviceTime *= misdiagnosisPenaltyFactor(patient);
 
 
 
             double nextDeparture = currentTime + serviceTime;
-            eventList.add(new Event(nextDeparture, getDepartureEventType(), patient));
+            simulator.schedule(nextDeparture, getDepartureEventType(), patient);
             activeTreatments++;
 
             if (debug == 1) {
-                System.out.println("[" + stationName + "]: Started treatment for " + patient.id + " @T: " + currentTime + ", departs @T: " + nextDeparture);
+                System.out.println("[" + stationName + "]: Started treatment for " + patient.getId() + " @T: " + currentTime + ", departs @T: " + nextDeparture);
             }
         }
     }
@@ -209,6 +190,7 @@ public class Zone extends ServiceStation {
 
 
     //fill staff slots from queue
+    @Override
     public void attemptToStartTreatmentForAll(double currentTime) {
         while (!waitingForStaff.isEmpty() && activeTreatments < maxStaffAvailable) {
             Patient next = waitingForStaff.poll();
@@ -252,12 +234,16 @@ public class Zone extends ServiceStation {
 
             double combinedRisk = baseRisk * (0.6 * treatmentFactor + 0.4 * delayFactor) * congestionFactor;
 
-            if (Math.random() < combinedRisk) {
+            if (simulator.randomStreams.get(RandomStreams.Stream.DEATH).nextDouble() < combinedRisk) {
                 patient.died = true;
                 patient.deathTime = currentTime;
+                patientTable.recordDeath(patient.regNo); // may already be disposed (LWBS during treatment)
+                census.recordDeath(stationName);
+                census.changeInTreatment(stationName, -1);
                 activeTreatments--;
-                busyBeds--;
+                changeBusyBeds(-1);
                 if (!patient.isCountedDisposed) simulator.addDisposedPatient(patient);
+                simulator.markDirty(this); // staff slot freed
 //                if (debug == 1) {
 //                    System.out.printf("[Death] %d (ESI %d) died @%s @T: %.2f, risk: %.4f\n",
 //                            patient.id, patient.ESILevel, stationName, currentTime, combinedRisk);
@@ -268,30 +254,28 @@ public class Zone extends ServiceStation {
 
 
 
-        setPatientDepartureTime(patient, currentTime);
-        departedPatients.add(patient);
+        recordDeparture(patient, currentTime);
+        simulator.outcomeSketches.recordZoneDeparture(stationName, patient.zonePT - patient.sortingAT, getResponseTime(patient));
 
         activeTreatments--;
-        busyBeds--;
+        changeBusyBeds(-1);
 
+        // set before disposition so disposal-time statistics see the final LOS
+        patient.edDepartureTime = currentTime;
         sendToAppropriateNextStation(currentEvent);
 
-        if (patient.isCountedDisposed) {
-            patient.edDepartureTime = currentTime;
-        }
-
         // if patients are waiting for beds, move one into bed
         if (!queue.isEmpty()) {
             Patient next = queue.poll();
-            busyBeds++;
+            changeBusyBeds(1);
             waitingForStaff.add(next);
             if (debug == 1) {
-                System.out.println("[" + stationName + "] Patient " + next.id + " got bed after departure @T: " + currentTime);
+                System.out.println("[" + stationName + "] Patient " + next.getId() + " got bed after departure @T: " + currentTime);
             }
         }
 
-        //try to fill any available staff slots
-        attemptToStartTreatmentForAll(currentTime);
+        //staff slot freed: fill it when the simulator dispatches dirty stations
+        simulator.markDirty(this);
     }
 
     @Override
@@ -300,7 +284,7 @@ public class Zone extends ServiceStation {
     }
 
     public boolean isFull() {
-        return (this.busyBeds >= this.getZoneCapacity(this.zoneName)) || (this.activeTreatments >= this.maxStaffAvailable);
+        return (this.busyBeds >= this.numBeds) || (this.activeTreatments >= this.maxStaffAvailable);
     }
 
     public List<Patient> getPatientsWaitingTooLong(double currentTime) {
@@ -320,23 +304,11 @@ public class Zone extends ServiceStation {
 
 
     public int countDeaths() {
-        int deaths = 0;
-        for (Patient p : edDisposedPatients) {
-            if (p.died && p.currentStationName == this.zoneName) {
-                deaths++;
-            }
-        }
-        return deaths;
+        return census.getDeaths(zoneName);
     }
 
     public int countLWBS() {
-        int count = 0;
-        for (Patient p : edDisposedPatients) {
-            if (p.hasLWBS && p.currentStationName == this.zoneName) {
-                count++;
-            }
-        }
-        return count;
+        return census.getLWBS(zoneName);
     }
 
     public void printQuickStats() {
@@ -345,7 +317,7 @@ public class Zone extends ServiceStation {
         System.out.println("Avg deaths per day: " + (countDeaths() / (double) simulator.numDays));
         System.out.println("Total LWBS in zone: " + countLWBS());
         System.out.println("Avg LWBS per day: " + (countLWBS() / (double) simulator.numDays));
-        System.out.println("Patients in bed waiting for staff: " + waitingForStaff.size());
+        System.out.println("Patients in bed waiting for staff: " + census.getWaitingForStaff(zoneName));
         System.out.println("Active treatments: " + activeTreatments + "/" + maxStaffAvailable);
         System.out.println("Busy beds: " + busyBeds + "/" + numBeds);
     }